@@ -0,0 +1,71 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmarks the JSON serialization of the lead list responses, offset and cursor pages,
+ * at the default and the maximum page size.
+ */
+@State(Scope.Benchmark)
+public class LeadResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<LeadResponse> page;
+    private CursorPageResponse<LeadResponse> cursorPage;
+
+    @Setup
+    public void setUp() {
+        // Same settings as the Spring Boot auto-configured ObjectMapper
+        objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<LeadResponse> leads = new ArrayList<>(pageSize);
+        LeadStatus[] statuses = LeadStatus.values();
+        for (int i = 0; i < pageSize; i++) {
+            leads.add(new LeadResponse((long) i, "Cliente " + i, String.format("%08d", 40000000 + i),
+                    "Clinica " + (i % 12), "Especialidad " + (i % 30), new BigDecimal("1500.00").add(BigDecimal.valueOf(i)),
+                    "9876" + String.format("%05d", i), statuses[i % statuses.length],
+                    LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i)));
+        }
+
+        page = new PageImpl<>(leads, PageRequest.of(0, pageSize), 1_000_000);
+        cursorPage = CursorPageResponse.<LeadResponse>builder()
+                .content(leads)
+                .size(pageSize)
+                .hasNext(true)
+                .nextCursor("MjAyNC0wMS0wMVQwMDowMHwxMjM0NTY")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeCursorPage() throws Exception {
+        return objectMapper.writeValueAsBytes(cursorPage);
+    }
+}
@@ -0,0 +1,47 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+
+/**
+ * Benchmarks the per-row work of the Excel import: name normalization and the SAX row reader
+ * that replaced the cell-by-cell DOM access (getCellValueAsString).
+ */
+@State(Scope.Benchmark)
+public class ExcelPopulateBenchmark {
+
+    private static final String[] COLUMNS = {"A", "B", "C", "D", "E", "F", "G", "H", "I"};
+    private static final String[] VALUES = {
+        "1", "CLINICA INTERNACIONAL SEDE SAN BORJA", "Lima", "Peru", "Lima", "Lima", "San Borja",
+        "(01) 619-6161", "AV. GUARDIA CIVIL 385 SAN BORJA"
+    };
+
+    private static final int ROW = 2;
+
+    private ExcelSheetRowReader rowReader;
+    private Map<Integer, String> lastRow;
+
+    @Setup
+    public void setUp() {
+        rowReader = new ExcelSheetRowReader(ROW, (rowIndex, cells) -> lastRow = cells);
+    }
+
+    @Benchmark
+    public String capitalizeWords() {
+        return ExcelPopulateService.capitalizeWords("CLINICA INTERNACIONAL   SEDE san borja");
+    }
+
+    @Benchmark
+    public Map<Integer, String> readRow() {
+        rowReader.startRow(ROW);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            rowReader.cell(COLUMNS[i] + (ROW + 1), VALUES[i], null);
+        }
+        rowReader.endRow(ROW);
+        return lastRow;
+    }
+}
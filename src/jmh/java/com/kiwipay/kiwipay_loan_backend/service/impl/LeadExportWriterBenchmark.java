@@ -0,0 +1,50 @@
+package com.kiwipay.kiwipay_loan_backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.service.LeadExportFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Benchmarks writing one export row, without the I/O cost of the real output stream.
+ */
+@State(Scope.Benchmark)
+public class LeadExportWriterBenchmark {
+
+    @Param({"CSV", "NDJSON"})
+    private LeadExportFormat format;
+
+    private LeadExportWriter exportWriter;
+    private LeadResponse lead;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        exportWriter = new LeadExportWriter(format, Writer.nullWriter(), objectMapper);
+        // Quotes and commas force the CSV escaping path
+        lead = new LeadResponse(123456L, "Perez, Juan \"Juancho\"", "45871236", "Clinica San Felipe",
+                "Ortodoncia", new BigDecimal("12500.50"), "987654321", LeadStatus.EN_EVALUACION,
+                LocalDateTime.of(2024, 5, 14, 10, 30));
+    }
+
+    @Benchmark
+    public void writeRow() throws IOException {
+        exportWriter.writeRow(lead);
+    }
+}
@@ -0,0 +1,63 @@
+package com.kiwipay.kiwipay_loan_backend.service.impl;
+
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadDetailResponse;
+import com.kiwipay.kiwipay_loan_backend.entity.Clinic;
+import com.kiwipay.kiwipay_loan_backend.entity.Lead;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.entity.MedicalSpecialty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Benchmarks the per-request mapping and validation done by LeadServiceImpl.
+ * The list mapping (mapToResponse) no longer exists: list views are projected by LeadRepository.
+ */
+@State(Scope.Benchmark)
+public class LeadMappingBenchmark {
+
+    private Lead lead;
+
+    @Setup
+    public void setUp() {
+        Clinic clinic = Clinic.builder().name("Clinica San Felipe").address("Av. Gregorio Escobedo 650").build();
+        clinic.setId(7L);
+        MedicalSpecialty specialty = MedicalSpecialty.builder().name("Ortodoncia").category("Odontologia").build();
+        specialty.setId(21L);
+
+        lead = Lead.builder()
+                .receptionistName("Maria Torres")
+                .clientName("Juan Perez Quispe")
+                .dni("45871236")
+                .monthlyIncome(new BigDecimal("3500.00"))
+                .treatmentCost(new BigDecimal("12500.50"))
+                .phone("987654321")
+                .email("juan.perez@example.com")
+                .clinic(clinic)
+                .medicalSpecialty(specialty)
+                .status(LeadStatus.EN_EVALUACION)
+                .build();
+        lead.setId(123456L);
+        lead.setCreatedAt(LocalDateTime.of(2024, 5, 14, 10, 30));
+        lead.setUpdatedAt(LocalDateTime.of(2024, 5, 15, 9, 0));
+    }
+
+    @Benchmark
+    public LeadDetailResponse mapToDetailResponse() {
+        return LeadServiceImpl.mapToDetailResponse(lead);
+    }
+
+    @Benchmark
+    public void validateAllowedTransition() {
+        LeadServiceImpl.validateStatusTransition(LeadStatus.NUEVO, LeadStatus.EN_EVALUACION);
+    }
+
+    @Benchmark
+    public void validateTerminalSameStatus() {
+        LeadServiceImpl.validateStatusTransition(LeadStatus.DESEMBOLSADO, LeadStatus.DESEMBOLSADO);
+    }
+}
@@ -0,0 +1,19 @@
+package com.kiwipay.kiwipay_loan_backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache configuration for the application.
+ * Enables Spring's cache abstraction; the Caffeine caches themselves are
+ * declared through the spring.cache.* properties of each profile.
+ * Entries are evicted on every node when any node writes (see CacheInvalidationListener).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CLINICS_CACHE = "clinics";
+    public static final String SPECIALTIES_CACHE = "specialties";
+    public static final String LEADS_CACHE = "leads";
+}
@@ -0,0 +1,40 @@
+package com.kiwipay.kiwipay_loan_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiwipay.kiwipay_loan_backend.outbox.FileOutboxSink;
+import com.kiwipay.kiwipay_loan_backend.outbox.LogOutboxSink;
+import com.kiwipay.kiwipay_loan_backend.outbox.OutboxSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Selects the sink the lead outbox relay delivers to (kiwipay.outbox.sink).
+ */
+@Configuration
+public class OutboxConfig {
+
+    /**
+     * Logs every event; the default.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "kiwipay.outbox.sink", havingValue = "log", matchIfMissing = true)
+    public OutboxSink logOutboxSink() {
+        return new LogOutboxSink();
+    }
+
+    /**
+     * Appends every event to a local NDJSON file.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "kiwipay.outbox.sink", havingValue = "file")
+    public OutboxSink fileOutboxSink(
+            @Value("${kiwipay.outbox.file.path:outbox/lead-events.ndjson}") Path path,
+            ObjectMapper objectMapper) throws IOException {
+        return new FileOutboxSink(path, objectMapper);
+    }
+}
@@ -0,0 +1,13 @@
+package com.kiwipay.kiwipay_loan_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled maintenance tasks (e.g. purging idle rate limit buckets).
+ * They run on the auto-configured spring.task.scheduling pool.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
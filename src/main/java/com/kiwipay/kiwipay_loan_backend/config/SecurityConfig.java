@@ -2,6 +2,7 @@ package com.kiwipay.kiwipay_loan_backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -16,6 +17,30 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Actuator endpoints other than the health probes and info (metrics, prometheus and,
+     * in dev/staging, env/beans/configprops) require HTTP Basic as the ACTUATOR role,
+     * backed by spring.security.user.*. Kept in its own chain so Basic authentication
+     * never applies to the API.
+     */
+    @Bean
+    @Order(5)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session ->
+                session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                .anyRequest().hasRole("ACTUATOR")
+            )
+            .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
     @Bean
     @Order(10) // Execute after Swagger security configurations (which have @Order 1, 2, 3)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -44,7 +69,6 @@ public class SecurityConfig {
             // Authorization - All endpoints are public for now
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/v1/**").permitAll()
-                .requestMatchers("/actuator/health").permitAll()
                 .anyRequest().permitAll()
             );
             
@@ -0,0 +1,106 @@
+package com.kiwipay.kiwipay_loan_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiwipay.kiwipay_loan_backend.filter.CaffeineRateLimitStore;
+import com.kiwipay.kiwipay_loan_backend.filter.ConcurrencyLimitFilter;
+import com.kiwipay.kiwipay_loan_backend.filter.JdbcRateLimitStore;
+import com.kiwipay.kiwipay_loan_backend.filter.PrefetchingRateLimitStore;
+import com.kiwipay.kiwipay_loan_backend.filter.RateLimit;
+import com.kiwipay.kiwipay_loan_backend.filter.RateLimitFilter;
+import com.kiwipay.kiwipay_loan_backend.filter.RateLimitStore;
+import com.kiwipay.kiwipay_loan_backend.filter.RateLimitTier;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registration of the servlet filters that protect the API ahead of the controllers.
+ */
+@Configuration
+@Slf4j
+public class WebFilterConfig {
+
+    /**
+     * Per-client rate limiter. Registered before the Spring Security chain so the
+     * cheap bucket check happens before any authentication work.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "kiwipay.security.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            @Value("${kiwipay.security.rate-limit.requests-per-minute:60}") long requestsPerMinute,
+            @Value("${kiwipay.security.rate-limit.burst-capacity:120}") long burstCapacity,
+            @Value("${kiwipay.security.rate-limit.bulk.requests-per-minute:5}") long bulkRequestsPerMinute,
+            @Value("${kiwipay.security.rate-limit.bulk.burst-capacity:5}") long bulkBurstCapacity,
+            @Value("${kiwipay.security.rate-limit.export.requests-per-minute:2}") long exportRequestsPerMinute,
+            @Value("${kiwipay.security.rate-limit.export.burst-capacity:3}") long exportBurstCapacity,
+            @Value("${kiwipay.security.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${kiwipay.security.rate-limit.idle-expiration:10m}") Duration idleExpiration,
+            @Value("${kiwipay.security.rate-limit.prefetch-tokens:10}") long prefetchTokens,
+            @Value("${kiwipay.security.rate-limit.prefetch-lease:1s}") Duration prefetchLease,
+            @Value("${kiwipay.security.rate-limit.api-keys:}") Set<String> issuedApiKeys,
+            ObjectProvider<JdbcRateLimitStore> jdbcStore,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper) {
+        Map<RateLimitTier, RateLimit> limits = Map.of(
+                RateLimitTier.DEFAULT, new RateLimit(requestsPerMinute, burstCapacity),
+                RateLimitTier.BULK, new RateLimit(bulkRequestsPerMinute, bulkBurstCapacity),
+                RateLimitTier.EXPORT, new RateLimit(exportRequestsPerMinute, exportBurstCapacity));
+
+        JdbcRateLimitStore sharedStore = jdbcStore.getIfAvailable();
+        RateLimitStore store = sharedStore != null
+                ? new PrefetchingRateLimitStore(sharedStore, prefetchTokens, prefetchLease, maxClients)
+                : new CaffeineRateLimitStore(maxClients, idleExpiration);
+        log.info("Rate limiting enabled with {} store: {}", sharedStore != null ? "jdbc" : "local", limits);
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(limits, store, issuedApiKeys, meterRegistry, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+
+    /**
+     * Rate limit store shared by all replicas through the application datasource.
+     * Without it the buckets are kept per JVM.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "kiwipay.security.rate-limit.store", havingValue = "jdbc")
+    public JdbcRateLimitStore jdbcRateLimitStore(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${kiwipay.security.rate-limit.idle-expiration:10m}") Duration idleExpiration) {
+        return new JdbcRateLimitStore(jdbcTemplate, idleExpiration);
+    }
+
+    /**
+     * Concurrency limiter sized to the Hikari pool by default.
+     * Enabled together with virtual threads unless configured otherwise.
+     * Runs right after the Spring Security chain so rejected (unauthenticated) calls never take a permit.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "kiwipay.web.concurrency-limit.enabled", havingValue = "true")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${kiwipay.web.concurrency-limit.max-concurrent-requests:0}") int maxConcurrentRequests,
+            @Value("${kiwipay.web.concurrency-limit.acquire-timeout:2s}") Duration acquireTimeout,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            ObjectMapper objectMapper) {
+        int limit = maxConcurrentRequests > 0 ? maxConcurrentRequests : poolSize;
+        log.info("Concurrency limit enabled: {} concurrent API requests, acquire timeout {}", limit, acquireTimeout);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limit, acquireTimeout, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -1,11 +1,14 @@
 package com.kiwipay.kiwipay_loan_backend.controller;
 
 import com.kiwipay.kiwipay_loan_backend.entity.Clinic;
-import com.kiwipay.kiwipay_loan_backend.repository.ClinicRepository;
+import com.kiwipay.kiwipay_loan_backend.service.CatalogService;
+import com.kiwipay.kiwipay_loan_backend.service.CatalogSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -23,14 +26,22 @@ import java.util.List;
 @Tag(name = "Clinics", description = "Gestión de clínicas y centros médicos")
 public class ClinicController {
 
-    private final ClinicRepository clinicRepository;
+    private final CatalogService catalogService;
 
     @GetMapping
     @Operation(summary = "Get all active clinics", 
-               description = "Returns a list of all active clinics for the dropdown selector")
-    @ApiResponse(responseCode = "200", description = "Successful operation")
+               description = "Returns a list of all active clinics for the dropdown selector. " +
+                             "Supports conditional requests with If-None-Match.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "304", description = "Catalog not modified since the given ETag")
+    })
     public ResponseEntity<List<Clinic>> getActiveClinics() {
-        List<Clinic> clinics = clinicRepository.findByActiveTrue();
-        return ResponseEntity.ok(clinics);
+        CatalogSnapshot<Clinic> clinics = catalogService.getActiveClinics();
+        // Spring answers a matching If-None-Match with 304 and skips serializing the body
+        return ResponseEntity.ok()
+                .eTag(clinics.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(clinics.items());
     }
-} 
\ No newline at end of file
+}
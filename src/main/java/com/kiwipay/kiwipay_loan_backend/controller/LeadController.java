@@ -2,9 +2,20 @@ package com.kiwipay.kiwipay_loan_backend.controller;
 
 import com.kiwipay.kiwipay_loan_backend.dto.request.CreateLeadRequest;
 import com.kiwipay.kiwipay_loan_backend.dto.request.UpdateLeadRequest;
+import com.kiwipay.kiwipay_loan_backend.dto.response.CursorPageResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadBatchResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadChangeEvent;
 import com.kiwipay.kiwipay_loan_backend.dto.response.LeadDetailResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadFunnelResponse;
 import com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadStageDurationResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadStatsResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadStatusEventResponse;
 import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.service.LeadChangePublisher;
+import com.kiwipay.kiwipay_loan_backend.service.LeadExportFormat;
+import com.kiwipay.kiwipay_loan_backend.service.LeadFunnelGrouping;
+import com.kiwipay.kiwipay_loan_backend.service.LeadFunnelService;
 import com.kiwipay.kiwipay_loan_backend.service.LeadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,13 +33,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 /**
@@ -65,6 +83,8 @@ import java.util.List;
 public class LeadController {
 
     private final LeadService leadService;
+    private final LeadFunnelService leadFunnelService;
+    private final LeadChangePublisher leadChangePublisher;
 
     @PostMapping
     @Operation(summary = "Create a new lead", description = "Creates a new lead from the medical form data")
@@ -81,6 +101,20 @@ public class LeadController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create leads in bulk", description = "Creates several leads in one request. Each item is validated on its own and the valid ones are inserted in JDBC batches")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the result of each item",
+                content = @Content(schema = @Schema(implementation = LeadBatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Empty batch or batch larger than the allowed maximum")
+    })
+    public ResponseEntity<LeadBatchResponse> createLeads(
+            @RequestBody List<CreateLeadRequest> requests) {
+        log.info("Creating batch of {} leads", requests.size());
+        LeadBatchResponse response = leadService.createLeads(requests);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     @Operation(summary = "Get paginated list of leads", description = "Returns a paginated list of leads with optional filters")
     @ApiResponses(value = {
@@ -103,13 +137,155 @@ public class LeadController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             
             @Parameter(description = "Pagination parameters")
-            @PageableDefault(size = 20, sort = "createdAt,desc") Pageable pageable) {
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
         
         log.debug("Fetching leads with filters - status: {}, clinicId: {}", status, clinicId);
         Page<LeadResponse> leads = leadService.getLeads(status, clinicId, startDate, endDate, pageable);
         return ResponseEntity.ok(leads);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get leads using cursor pagination",
+               description = "Returns leads ordered by creation date descending using keyset pagination. " +
+                             "Pass the returned nextCursor to fetch the following page. No total count is computed.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation",
+                content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<CursorPageResponse<LeadResponse>> getLeadsByCursor(
+            @Parameter(description = "Filter by lead status")
+            @RequestParam(required = false) LeadStatus status,
+
+            @Parameter(description = "Filter by clinic ID")
+            @RequestParam(required = false) Long clinicId,
+
+            @Parameter(description = "Filter by start date")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+
+            @Parameter(description = "Filter by end date")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+
+            @Parameter(description = "Opaque cursor returned by the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(defaultValue = "20") int size) {
+
+        log.debug("Fetching leads by cursor - status: {}, clinicId: {}", status, clinicId);
+        CursorPageResponse<LeadResponse> leads =
+                leadService.getLeadsByCursor(status, clinicId, startDate, endDate, cursor, size);
+        return ResponseEntity.ok(leads);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get lead statistics",
+               description = "Returns lead counts and treatment cost sums by status, clinic, specialty and creation day. " +
+                             "Read from an incrementally maintained summary; defaults to the last 30 days (max 366).")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation",
+                content = @Content(schema = @Schema(implementation = LeadStatsResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid date range")
+    })
+    public ResponseEntity<LeadStatsResponse> getLeadStats(
+            @Parameter(description = "First creation day included (default: 29 days before endDate)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "Last creation day included (default: today)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Filter by clinic ID")
+            @RequestParam(required = false) Long clinicId) {
+
+        log.debug("Fetching lead stats - startDate: {}, endDate: {}, clinicId: {}", startDate, endDate, clinicId);
+        return ResponseEntity.ok(leadService.getLeadStats(startDate, endDate, clinicId));
+    }
+
+    @GetMapping("/funnel")
+    @Operation(summary = "Get lead conversion funnel",
+               description = "Returns how many leads created in the month range reached each stage from NUEVO to " +
+                             "DESEMBOLSADO, with conversion rates, optionally broken down by month, clinic or specialty. " +
+                             "Served from rollups refreshed incrementally; refreshedUpTo tells how recent they are.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation",
+                content = @Content(schema = @Schema(implementation = LeadFunnelResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid month range")
+    })
+    public ResponseEntity<LeadFunnelResponse> getLeadFunnel(
+            @Parameter(description = "First creation month included, yyyy-MM (default: 11 months before endMonth)")
+            @RequestParam(required = false)
+            @DateTimeFormat(pattern = "yyyy-MM") YearMonth startMonth,
+
+            @Parameter(description = "Last creation month included, yyyy-MM (default: current month)")
+            @RequestParam(required = false)
+            @DateTimeFormat(pattern = "yyyy-MM") YearMonth endMonth,
+
+            @Parameter(description = "Filter by clinic ID")
+            @RequestParam(required = false) Long clinicId,
+
+            @Parameter(description = "Filter by medical specialty ID")
+            @RequestParam(required = false) Long medicalSpecialtyId,
+
+            @Parameter(description = "Break the funnel down by MONTH, CLINIC or SPECIALTY")
+            @RequestParam(defaultValue = "NONE") LeadFunnelGrouping groupBy) {
+
+        log.debug("Fetching lead funnel - startMonth: {}, endMonth: {}, groupBy: {}", startMonth, endMonth, groupBy);
+        return ResponseEntity.ok(leadFunnelService.getFunnel(startMonth, endMonth, clinicId, medicalSpecialtyId, groupBy));
+    }
+
+    @GetMapping("/stage-durations")
+    @Operation(summary = "Get time spent per lead status",
+               description = "Returns, for each status, how many completed stays started in the date range and " +
+                             "their average and p50/p90/p95/p99 durations in seconds, read from the status history. " +
+                             "Stays still open are not counted; defaults to the last 90 days (max 366).")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range")
+    })
+    public ResponseEntity<List<LeadStageDurationResponse>> getStageDurations(
+            @Parameter(description = "First day included (default: 89 days before endDate)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "Last day included (default: today)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        log.debug("Fetching stage durations - startDate: {}, endDate: {}", startDate, endDate);
+        return ResponseEntity.ok(leadService.getStageDurations(startDate, endDate));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream lead changes",
+               description = "Server-Sent Events stream of leads created or updated on this node, so the lead list " +
+                             "can be patched instead of polled. Events: 'ready' once subscribed, 'lead' with a " +
+                             "LeadChangeEvent for each change, and 'resync' when changes were dropped because the " +
+                             "client fell behind or reconnected; on 'resync' reload the list. A status filter matches " +
+                             "leads entering or leaving that status.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream opened",
+                content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                        schema = @Schema(implementation = LeadChangeEvent.class))),
+        @ApiResponse(responseCode = "503", description = "Too many open streams, retry after Retry-After seconds")
+    })
+    public SseEmitter streamLeadChanges(
+            @Parameter(description = "Filter by lead status")
+            @RequestParam(required = false) LeadStatus status,
+
+            @Parameter(description = "Filter by clinic ID")
+            @RequestParam(required = false) Long clinicId,
+
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        log.debug("Opening lead change stream - status: {}, clinicId: {}", status, clinicId);
+        return leadChangePublisher.subscribe(status, clinicId, lastEventId != null);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get lead by ID", description = "Returns detailed information of a specific lead")
     @ApiResponses(value = {
@@ -125,6 +301,20 @@ public class LeadController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/timeline")
+    @Operation(summary = "Get lead status timeline",
+               description = "Returns the status history of a lead, oldest first, with the time spent in each status")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "404", description = "Lead not found")
+    })
+    public ResponseEntity<List<LeadStatusEventResponse>> getLeadTimeline(
+            @Parameter(description = "Lead ID", required = true)
+            @PathVariable Long id) {
+        log.debug("Fetching status timeline of lead {}", id);
+        return ResponseEntity.ok(leadService.getLeadTimeline(id));
+    }
+
     @PatchMapping("/{id}/status")
     @Operation(summary = "Update lead status", description = "Updates the status of a specific lead")
     @ApiResponses(value = {
@@ -184,8 +374,10 @@ public class LeadController {
             
             **Alternativas recomendadas:**
             - GET /api/v1/leads (paginado)
-            - GET /api/v1/leads/all/filtered (con filtros)
+            - GET /api/v1/leads/cursor (paginado por cursor)
+            - GET /api/v1/leads/export (exportación en streaming NDJSON/CSV)
             """,
+        deprecated = true,
         security = @SecurityRequirement(name = "Bearer Authentication")
     )
     @ApiResponses(value = {
@@ -203,7 +395,10 @@ public class LeadController {
     }
 
     @GetMapping("/all/filtered")
-    @Operation(summary = "Get all leads with filters", description = "Returns all leads with optional filters but without pagination")
+    @Operation(summary = "Get all leads with filters",
+               description = "Returns all leads with optional filters but without pagination. " +
+                             "Loads the whole result in memory; use GET /api/v1/leads/export for large datasets.",
+               deprecated = true)
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successful operation",
                 content = @Content(schema = @Schema(implementation = List.class)))
@@ -227,4 +422,55 @@ public class LeadController {
         List<LeadResponse> leads = leadService.getAllLeadsFiltered(status, clinicId, startDate, endDate);
         return ResponseEntity.ok(leads);
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export leads",
+        description = """
+            ### ENDPOINT ADMINISTRATIVO
+            
+            Exporta los leads filtrados en streaming, fila por fila, como NDJSON o CSV.
+            
+            **Características:**
+            - Memoria constante sin importar el número de filas
+            - Las filas se leen de la base de datos con un cursor del servidor
+            - Reemplaza a GET /api/v1/leads/all y GET /api/v1/leads/all/filtered
+            """,
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportación iniciada"),
+        @ApiResponse(responseCode = "401", description = "No autenticado - Token requerido"),
+        @ApiResponse(responseCode = "403", description = "No autorizado - Permisos de administrador requeridos"),
+        @ApiResponse(responseCode = "429", description = "Rate limit excedido - Demasiadas solicitudes")
+    })
+    @RequireAdminAuth
+    public ResponseEntity<StreamingResponseBody> exportLeads(
+            @Parameter(description = "Filter by lead status")
+            @RequestParam(required = false) LeadStatus status,
+
+            @Parameter(description = "Filter by clinic ID")
+            @RequestParam(required = false) Long clinicId,
+
+            @Parameter(description = "Filter by start date")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+
+            @Parameter(description = "Filter by end date")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+
+            @Parameter(description = "Export format")
+            @RequestParam(defaultValue = "NDJSON") LeadExportFormat format) {
+
+        log.info("Exporting leads as {} - status: {}, clinicId: {}", format, status, clinicId);
+        StreamingResponseBody body = output ->
+                leadService.exportLeads(status, clinicId, startDate, endDate, format, output);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"leads." + format.getExtension() + "\"")
+                .body(body);
+    }
+}
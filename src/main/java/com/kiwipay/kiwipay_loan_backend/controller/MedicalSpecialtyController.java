@@ -1,11 +1,14 @@
 package com.kiwipay.kiwipay_loan_backend.controller;
 
 import com.kiwipay.kiwipay_loan_backend.entity.MedicalSpecialty;
-import com.kiwipay.kiwipay_loan_backend.repository.MedicalSpecialtyRepository;
+import com.kiwipay.kiwipay_loan_backend.service.CatalogService;
+import com.kiwipay.kiwipay_loan_backend.service.CatalogSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,22 +27,30 @@ import java.util.List;
 @Tag(name = "Medical Specialties", description = "Gestión de especialidades médicas")
 public class MedicalSpecialtyController {
 
-    private final MedicalSpecialtyRepository medicalSpecialtyRepository;
+    private final CatalogService catalogService;
 
     @GetMapping
     @Operation(summary = "Get all active medical specialties", 
-               description = "Returns a list of all active medical specialties for the dropdown selector")
-    @ApiResponse(responseCode = "200", description = "Successful operation")
+               description = "Returns a list of all active medical specialties for the dropdown selector. " +
+                             "Supports conditional requests with If-None-Match.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "304", description = "Catalog not modified since the given ETag")
+    })
     public ResponseEntity<List<MedicalSpecialty>> getActiveMedicalSpecialties(
             @RequestParam(required = false) String category) {
         
-        List<MedicalSpecialty> specialties;
+        CatalogSnapshot<MedicalSpecialty> specialties;
         if (category != null && !category.isEmpty()) {
-            specialties = medicalSpecialtyRepository.findByCategoryAndActiveTrue(category);
+            specialties = catalogService.getActiveMedicalSpecialtiesByCategory(category);
         } else {
-            specialties = medicalSpecialtyRepository.findByActiveTrue();
+            specialties = catalogService.getActiveMedicalSpecialties();
         }
         
-        return ResponseEntity.ok(specialties);
+        // Spring answers a matching If-None-Match with 304 and skips serializing the body
+        return ResponseEntity.ok()
+                .eTag(specialties.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(specialties.items());
     }
-} 
\ No newline at end of file
+}
@@ -1,10 +1,15 @@
 package com.kiwipay.kiwipay_loan_backend.controller;
 
+import com.kiwipay.kiwipay_loan_backend.dto.response.ExcelImportJobResponse;
+import com.kiwipay.kiwipay_loan_backend.service.ExcelImportJobService;
 import com.kiwipay.kiwipay_loan_backend.service.ExcelPopulateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Map;
 
@@ -18,6 +23,7 @@ import java.util.Map;
 public class PopulateController {
     
     private final ExcelPopulateService excelPopulateService;
+    private final ExcelImportJobService excelImportJobService;
     
     /**
      * Ejecuta el proceso de populate desde el archivo Excel
@@ -43,6 +49,26 @@ public class PopulateController {
         }
     }
     
+    /**
+     * Sube un archivo Excel y lanza su importación en segundo plano.
+     * Devuelve de inmediato el ID del job para consultar su progreso.
+     */
+    @PostMapping(value = "/excel/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ExcelImportJobResponse> uploadExcel(@RequestParam("file") MultipartFile file) {
+        log.info("Recibido Excel para importación: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        
+        ExcelImportJobResponse job = excelImportJobService.startImport(file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+    
+    /**
+     * Consulta el progreso de un job de importación: filas leídas, insertadas, omitidas, fallidas y throughput
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ExcelImportJobResponse> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(excelImportJobService.getJob(jobId));
+    }
+    
     /**
      * Endpoint de prueba para verificar que el controlador funciona
      */
@@ -0,0 +1,21 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for a keyset (cursor) paginated response.
+ * Contains the page content and the opaque cursor to request the next page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
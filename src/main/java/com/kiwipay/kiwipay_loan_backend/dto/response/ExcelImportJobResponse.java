@@ -0,0 +1,29 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import com.kiwipay.kiwipay_loan_backend.service.ExcelImportJob;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * DTO for the status and progress of an Excel import job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExcelImportJobResponse {
+
+    private String jobId;
+    private String fileName;
+    private ExcelImportJob.Status status;
+    private long rowsRead;
+    private long rowsInserted;
+    private long rowsSkipped;
+    private long rowsFailed;
+    private double rowsPerSecond;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String errorMessage;
+}
@@ -0,0 +1,27 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a single item of a bulk lead ingestion.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadBatchItemResult {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    // Position of the item in the submitted array
+    private int index;
+    private Status status;
+    private Long id;
+    private String dni;
+    private List<String> errors;
+}
@@ -0,0 +1,21 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for the bulk lead ingestion response.
+ * Contains the totals and one result per submitted item, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadBatchResponse {
+
+    private int total;
+    private int created;
+    private int rejected;
+    private List<LeadBatchItemResult> results;
+}
@@ -0,0 +1,25 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.outbox.LeadEventType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a lead change pushed on the /changes stream.
+ * lead is the row as the leads table shows it after the change; previousStatus is set
+ * only when the status changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadChangeEvent {
+
+    private LeadEventType type;
+    private Long clinicId;
+    private LeadStatus previousStatus;
+    private LocalDateTime occurredAt;
+    private LeadResponse lead;
+}
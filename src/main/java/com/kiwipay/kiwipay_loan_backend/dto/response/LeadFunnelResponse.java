@@ -0,0 +1,25 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import com.kiwipay.kiwipay_loan_backend.service.LeadFunnelGrouping;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * DTO for the conversion funnel of the leads created in a range of months.
+ * refreshedUpTo is the last lead change already included in the rollups.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadFunnelResponse {
+
+    private YearMonth startMonth;
+    private YearMonth endMonth;
+    private LeadFunnelGrouping groupBy;
+    private LocalDateTime refreshedUpTo;
+    private List<LeadFunnelSeries> series;
+}
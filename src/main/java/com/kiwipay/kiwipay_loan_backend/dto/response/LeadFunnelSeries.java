@@ -0,0 +1,21 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for the funnel of one group (a month, clinic or specialty, or the overall total).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadFunnelSeries {
+
+    private String key;
+    private String label;
+    private long total;
+    private long rejected;
+    private List<LeadFunnelStage> stages;
+}
@@ -0,0 +1,21 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import lombok.*;
+
+/**
+ * DTO for one stage of a conversion funnel: how many leads reached it and the
+ * conversion rates from the previous stage and from the first one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadFunnelStage {
+
+    private LeadStatus status;
+    private String label;
+    private long reached;
+    private double conversionFromPrevious;
+    private double conversionFromStart;
+}
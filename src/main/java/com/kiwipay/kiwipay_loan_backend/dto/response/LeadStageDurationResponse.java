@@ -0,0 +1,24 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import lombok.*;
+
+/**
+ * DTO for the time leads spend in one status: number of completed stays
+ * and duration percentiles, in seconds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadStageDurationResponse {
+
+    private LeadStatus status;
+    private String label;
+    private long completedStays;
+    private double averageSeconds;
+    private double p50Seconds;
+    private double p90Seconds;
+    private double p95Seconds;
+    private double p99Seconds;
+}
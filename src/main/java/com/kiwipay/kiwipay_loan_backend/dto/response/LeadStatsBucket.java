@@ -0,0 +1,21 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for one group of the lead statistics: its key, a display label,
+ * the number of leads and the sum of their treatment costs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadStatsBucket {
+
+    private String key;
+    private String label;
+    private long count;
+    private BigDecimal treatmentCost;
+}
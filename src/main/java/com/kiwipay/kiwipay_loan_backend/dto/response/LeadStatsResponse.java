@@ -0,0 +1,27 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for the lead statistics of a date range (by creation day).
+ * Contains the totals and the breakdowns by status, clinic, specialty and day.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadStatsResponse {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long totalLeads;
+    private BigDecimal totalTreatmentCost;
+    private List<LeadStatsBucket> byStatus;
+    private List<LeadStatsBucket> byClinic;
+    private List<LeadStatsBucket> bySpecialty;
+    private List<LeadStatsBucket> byDay;
+}
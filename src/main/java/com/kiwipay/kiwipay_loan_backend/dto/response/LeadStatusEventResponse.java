@@ -0,0 +1,25 @@
+package com.kiwipay.kiwipay_loan_backend.dto.response;
+
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one entry of a lead status timeline.
+ * fromStatus is null for the creation event; leftAt and durationSeconds are null
+ * while the lead is still in toStatus.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadStatusEventResponse {
+
+    private LeadStatus fromStatus;
+    private LeadStatus toStatus;
+    private LocalDateTime changedAt;
+    private String changedBy;
+    private LocalDateTime leftAt;
+    private Long durationSeconds;
+}
@@ -21,8 +21,15 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
 
+    public static final String ID_SEQUENCE = "kiwipay_id_seq";
+    // Must match the INCREMENT BY of kiwipay_id_seq
+    public static final int ID_ALLOCATION_SIZE = 50;
+    private static final String ID_GENERATOR = "kiwipay_id_generator";
+
+    // Shared sequence allocated in blocks (pooled-lo) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_GENERATOR)
+    @SequenceGenerator(name = ID_GENERATOR, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id", nullable = false, updatable = false)
     private Long id;
 
@@ -9,11 +9,8 @@ import java.math.BigDecimal;
  * Entity representing a loan lead from the medical form.
  */
 @Entity
-@Table(name = "leads", indexes = {
-    @Index(name = "idx_leads_dni", columnList = "dni"),
-    @Index(name = "idx_leads_created_at", columnList = "created_at"),
-    @Index(name = "idx_leads_status", columnList = "status")
-})
+// Indexes are owned by the Flyway migrations (ddl-auto=validate never reads @Index)
+@Table(name = "leads")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,7 +1,11 @@
 package com.kiwipay.kiwipay_loan_backend.entity;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Enum representing the possible statuses of a lead.
+ * Declaration order defines the conversion funnel; RECHAZADO is an exit, not a stage.
  */
 public enum LeadStatus {
     NUEVO("Nuevo"),
@@ -12,6 +16,10 @@ public enum LeadStatus {
     RECHAZADO("Rechazado"),
     DESEMBOLSADO("Desembolsado");
 
+    private static final List<LeadStatus> FUNNEL_STAGES = Arrays.stream(values())
+            .filter(LeadStatus::isFunnelStage)
+            .toList();
+
     private final String displayName;
 
     LeadStatus(String displayName) {
@@ -21,4 +29,15 @@ public enum LeadStatus {
     public String getDisplayName() {
         return displayName;
     }
+
+    public boolean isFunnelStage() {
+        return this != RECHAZADO;
+    }
+
+    /**
+     * Funnel stages in order, from NUEVO to DESEMBOLSADO.
+     */
+    public static List<LeadStatus> funnelStages() {
+        return FUNNEL_STAGES;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.kiwipay.kiwipay_loan_backend.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when the server is temporarily out of capacity for a request.
+ * Answered with 503 and a Retry-After header.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
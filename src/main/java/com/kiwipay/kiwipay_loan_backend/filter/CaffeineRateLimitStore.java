@@ -0,0 +1,42 @@
+package com.kiwipay.kiwipay_loan_backend.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+
+import java.time.Duration;
+
+/**
+ * In-process store with one Bucket4j bucket per key in a bounded, expiring Caffeine map.
+ * Limits are enforced per replica; use {@link JdbcRateLimitStore} when running several nodes.
+ */
+public class CaffeineRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public CaffeineRateLimitStore(long maxClients, Duration idleExpiration) {
+        // Bounded and expiring: idle clients are dropped once their bucket would be full again anyway
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleExpiration)
+                .build();
+    }
+
+    @Override
+    public Grant tryConsume(String key, RateLimit limit, long tokens) {
+        Bucket bucket = buckets.get(key, k -> newBucket(limit));
+
+        long granted = bucket.tryConsumeAsMuchAsPossible(tokens);
+        long nanosToWait = granted > 0 ? 0 : bucket.estimateAbilityToConsume(1).getNanosToWaitForRefill();
+        return new Grant(granted, bucket.getAvailableTokens(), nanosToWait);
+    }
+
+    private Bucket newBucket(RateLimit limit) {
+        return Bucket.builder()
+                .addLimit(Bandwidth.classic(limit.burstCapacity(),
+                        Refill.greedy(limit.requestsPerMinute(), Duration.ofMinutes(1))))
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.kiwipay.kiwipay_loan_backend.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of API requests processed at the same time.
+ * With virtual threads Tomcat no longer bounds concurrency, so without this limit every request
+ * would queue inside Hikari until its connection-timeout; here the excess waits briefly for a permit
+ * and is then rejected with 503 and Retry-After.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    // LeadController's SSE endpoint; it always answers text/event-stream, whatever the Accept header says
+    static final String LEAD_CHANGES_PATH = "/api/v1/leads/changes";
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, Duration acquireTimeout, ObjectMapper objectMapper) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Server-Sent Events streams stay open for minutes without using a database connection,
+     * so they would only starve the permits; they are bounded by their own subscriber limit.
+     * Matched on method and path only: a client sending no Accept header, or a wildcard one, still gets the stream.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return "GET".equals(request.getMethod()) && LEAD_CHANGES_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!acquirePermit()) {
+            log.warn("Concurrency limit reached, rejecting {} {}", request.getMethod(), request.getRequestURI());
+            writeRejection(request, response);
+            return;
+        }
+
+        boolean releaseNow = true;
+        try {
+            filterChain.doFilter(request, response);
+            // Streaming responses keep working (and holding a connection) after this thread returns
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasePermitListener());
+                releaseNow = false;
+            }
+        } finally {
+            if (releaseNow) {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void writeRejection(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+            HttpStatus.SERVICE_UNAVAILABLE, "El servidor está procesando demasiadas solicitudes, intente nuevamente"
+        );
+        problemDetail.setTitle("Service Unavailable");
+        problemDetail.setProperty("path", request.getRequestURI());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problemDetail);
+    }
+
+    private class ReleasePermitListener implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Also fired after onTimeout/onError, so the permit is released exactly once
+            permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
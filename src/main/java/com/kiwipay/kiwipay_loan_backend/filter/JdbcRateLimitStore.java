@@ -0,0 +1,60 @@
+package com.kiwipay.kiwipay_loan_backend.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store that shares the buckets between replicas through the application datasource.
+ * Each call is a single round trip to rate_limit_take(), which refills and consumes the bucket
+ * atomically under a row lock using the database clock, so every node sees the same state.
+ * Wrap it in a {@link PrefetchingRateLimitStore} to keep the round trip off most requests.
+ */
+@Slf4j
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final String TAKE_SQL =
+            "SELECT granted, remaining, seconds_to_wait " +
+            "FROM rate_limit_take(:key, :capacity, :refillPerSecond, :requested)";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM rate_limit_buckets WHERE refilled_at < now() - make_interval(secs => :idleSeconds)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Duration idleExpiration;
+
+    public JdbcRateLimitStore(NamedParameterJdbcTemplate jdbcTemplate, Duration idleExpiration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idleExpiration = idleExpiration;
+    }
+
+    @Override
+    public Grant tryConsume(String key, RateLimit limit, long tokens) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("capacity", limit.burstCapacity())
+                .addValue("refillPerSecond", limit.refillPerSecond())
+                .addValue("requested", tokens);
+
+        return jdbcTemplate.queryForObject(TAKE_SQL, params, (rs, rowNum) -> new Grant(
+                rs.getLong("granted"),
+                rs.getLong("remaining"),
+                (long) Math.ceil(rs.getDouble("seconds_to_wait") * TimeUnit.SECONDS.toNanos(1))));
+    }
+
+    /**
+     * Deletes buckets idle long enough to be full again; they are recreated full on the next request.
+     */
+    @Scheduled(fixedDelayString = "${kiwipay.security.rate-limit.jdbc.purge-interval:PT5M}")
+    public void purgeIdleBuckets() {
+        int purged = jdbcTemplate.update(PURGE_SQL, Map.of("idleSeconds", idleExpiration.toSeconds()));
+        if (purged > 0) {
+            log.debug("Purged {} idle rate limit buckets", purged);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.kiwipay.kiwipay_loan_backend.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator that takes tokens from a shared store in batches and hands them out locally.
+ * Only one request in {@code prefetchTokens} pays the round trip to the shared store.
+ * Leftover tokens expire after {@code leaseDuration}, so a client can exceed its quota
+ * by at most {@code prefetchTokens - 1} per replica and only within that window.
+ * A batch never exceeds what the tier refills during one lease: expired leftovers are
+ * lost, and for low-rate tiers (e.g. 2/min with a burst of 3) a full batch would waste
+ * the burst of the client on its first request. Such tiers are not prefetched at all.
+ */
+public class PrefetchingRateLimitStore implements RateLimitStore {
+
+    private final RateLimitStore delegate;
+    private final long prefetchTokens;
+    private final double leaseSeconds;
+    private final Cache<String, AtomicLong> leases;
+
+    public PrefetchingRateLimitStore(RateLimitStore delegate,
+                                     long prefetchTokens,
+                                     Duration leaseDuration,
+                                     long maxClients) {
+        this.delegate = delegate;
+        this.prefetchTokens = Math.max(1, prefetchTokens);
+        this.leaseSeconds = leaseDuration.toNanos() / 1_000_000_000.0;
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterWrite(leaseDuration)
+                .build();
+    }
+
+    @Override
+    public Grant tryConsume(String key, RateLimit limit, long tokens) {
+        AtomicLong lease = leases.getIfPresent(key);
+        if (lease != null && takeFromLease(lease, tokens)) {
+            return new Grant(tokens, lease.get(), 0);
+        }
+
+        // Never prefetch more than the bucket can hold, or a single replica would drain it,
+        // nor more than the tier refills while the lease lives, or the leftovers are thrown away
+        long refilledDuringLease = (long) (limit.refillPerSecond() * leaseSeconds);
+        long batch = Math.max(tokens, Math.min(prefetchTokens, Math.min(limit.burstCapacity(), refilledDuringLease)));
+        Grant grant = delegate.tryConsume(key, limit, batch);
+        if (grant.granted() < tokens) {
+            return grant;
+        }
+
+        long leftover = grant.granted() - tokens;
+        if (leftover > 0) {
+            leases.put(key, new AtomicLong(leftover));
+        }
+        return new Grant(tokens, grant.remaining() + leftover, 0);
+    }
+
+    private boolean takeFromLease(AtomicLong lease, long tokens) {
+        long current;
+        do {
+            current = lease.get();
+            if (current < tokens) {
+                return false;
+            }
+        } while (!lease.compareAndSet(current, current - tokens));
+        return true;
+    }
+}
@@ -0,0 +1,11 @@
+package com.kiwipay.kiwipay_loan_backend.filter;
+
+/**
+ * Limit of a rate limit tier: sustained rate plus the burst a client may spend at once.
+ */
+public record RateLimit(long requestsPerMinute, long burstCapacity) {
+
+    public double refillPerSecond() {
+        return requestsPerMinute / 60.0;
+    }
+}
@@ -0,0 +1,126 @@
+package com.kiwipay.kiwipay_loan_backend.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token bucket rate limiting for the API.
+ * Clients are identified by their IP address, or by their X-API-Key header when the key is one
+ * of the issued keys (kiwipay.security.rate-limit.api-keys). Unknown keys are ignored, so a client
+ * cannot escape its bucket, or flood the store with new buckets, by inventing keys.
+ * The buckets live in a {@link RateLimitStore}, local to the JVM or shared between replicas.
+ * Runs ahead of the Spring Security chain so throttled calls are rejected before any token validation.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final Map<RateLimitTier, RateLimit> limits;
+    private final RateLimitStore store;
+    private final Map<RateLimitTier, Counter> rejectedCounters = new EnumMap<>(RateLimitTier.class);
+    private final ObjectMapper objectMapper;
+    private final Set<String> issuedApiKeys;
+
+    public RateLimitFilter(Map<RateLimitTier, RateLimit> limits,
+                           RateLimitStore store,
+                           Set<String> issuedApiKeys,
+                           MeterRegistry meterRegistry,
+                           ObjectMapper objectMapper) {
+        this.limits = new EnumMap<>(limits);
+        this.store = store;
+        this.issuedApiKeys = Set.copyOf(issuedApiKeys);
+        this.objectMapper = objectMapper;
+
+        for (RateLimitTier tier : RateLimitTier.values()) {
+            rejectedCounters.put(tier, Counter.builder("kiwipay.ratelimit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("tier", tier.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflight requests never reach a controller
+        return HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimitTier tier = RateLimitTier.forRequest(request);
+        RateLimitStore.Grant grant = store.tryConsume(tier + ":" + resolveClientKey(request), limits.get(tier), 1);
+        if (grant.isGranted()) {
+            response.setHeader(REMAINING_HEADER, String.valueOf(grant.remaining()));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(grant.nanosToWait()) + 1);
+        rejectedCounters.get(tier).increment();
+        log.warn("Rate limit exceeded for {} on tier {} ({} {})",
+                 request.getRemoteAddr(), tier, request.getMethod(), request.getRequestURI());
+        writeRejection(request, response, retryAfterSeconds);
+    }
+
+    private String resolveClientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && issuedApiKeys.contains(apiKey)) {
+            // Hashed so the key itself never reaches the bucket store (a database table with store=jdbc)
+            return "key:" + fingerprint(apiKey);
+        }
+        // Behind a proxy the real address comes from server.forward-headers-strategy
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static String fingerprint(String apiKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private void writeRejection(HttpServletRequest request,
+                                HttpServletResponse response,
+                                long retryAfterSeconds) throws IOException {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+            HttpStatus.TOO_MANY_REQUESTS, "Se excedió el límite de solicitudes, intente nuevamente en "
+                + retryAfterSeconds + " segundos"
+        );
+        problemDetail.setTitle("Too Many Requests");
+        problemDetail.setProperty("path", request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problemDetail);
+    }
+}
@@ -0,0 +1,33 @@
+package com.kiwipay.kiwipay_loan_backend.filter;
+
+/**
+ * Storage of the token buckets used by {@link RateLimitFilter}.
+ * Implementations may keep the buckets in process or share them between replicas.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes as many tokens as possible, up to {@code tokens}, from the bucket of the given key,
+     * creating a full bucket with the given limit if none exists yet.
+     *
+     * @param key the bucket key (tier and client)
+     * @param limit the limit of the bucket
+     * @param tokens the maximum number of tokens to take
+     * @return how many tokens were granted and, when none were, how long until one is available
+     */
+    Grant tryConsume(String key, RateLimit limit, long tokens);
+
+    /**
+     * Result of a consumption attempt.
+     *
+     * @param granted tokens actually taken, between 0 and the requested amount
+     * @param remaining whole tokens left in the bucket
+     * @param nanosToWait time until the next token when none was granted, otherwise 0
+     */
+    record Grant(long granted, long remaining, long nanosToWait) {
+
+        public boolean isGranted() {
+            return granted > 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.kiwipay.kiwipay_loan_backend.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Rate limit tiers. Each client has an independent bucket per tier,
+ * so heavy bulk or export calls do not consume the budget of regular API calls.
+ */
+public enum RateLimitTier {
+
+    DEFAULT,
+    BULK,
+    EXPORT;
+
+    /**
+     * Resolves the tier of a request from its path.
+     */
+    public static RateLimitTier forRequest(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals("/api/v1/leads/batch") || path.startsWith("/api/v1/populate/excel")) {
+            return BULK;
+        }
+        if (path.equals("/api/v1/leads/export")) {
+            return EXPORT;
+        }
+        return DEFAULT;
+    }
+}
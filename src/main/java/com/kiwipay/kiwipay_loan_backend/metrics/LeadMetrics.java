@@ -0,0 +1,61 @@
+package com.kiwipay.kiwipay_loan_backend.metrics;
+
+import com.kiwipay.kiwipay_loan_backend.entity.Lead;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Business counters for leads: leads created per clinic and status transitions.
+ * Counters are incremented after commit, so rolled back writes are never counted.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeadMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Counts a newly created lead, tagged by clinic and origin.
+     */
+    public void leadCreated(Lead lead) {
+        Counter counter = Counter.builder("kiwipay.leads.created")
+                .description("Leads created")
+                .tag("clinic_id", String.valueOf(lead.getClinic().getId()))
+                .tag("origin", String.valueOf(lead.getOrigin()))
+                .register(meterRegistry);
+        afterCommit(counter::increment);
+    }
+
+    /**
+     * Counts a lead status change. Calls where the status does not change are ignored.
+     */
+    public void statusChanged(LeadStatus from, LeadStatus to) {
+        if (from == to) {
+            return;
+        }
+        Counter counter = Counter.builder("kiwipay.leads.status.transitions")
+                .description("Lead status transitions")
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(meterRegistry);
+        afterCommit(counter::increment);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.kiwipay.kiwipay_loan_backend.metrics;
+
+import com.kiwipay.kiwipay_loan_backend.exception.BusinessException;
+import com.kiwipay.kiwipay_loan_backend.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the lead write/read path: LeadService, the catalog lookups
+ * and the JDBC batch repository. Spring Data repository calls are timed by Spring Boot
+ * itself (spring.data.repository.invocations), so together they show where a request spends its time.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String TIMER_NAME = "kiwipay.service.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.kiwipay.kiwipay_loan_backend.service.impl.LeadServiceImpl.*(..))"
+            + " || execution(public * com.kiwipay.kiwipay_loan_backend.service.CatalogService.*(..))"
+            + " || execution(public * com.kiwipay.kiwipay_loan_backend.repository.LeadBatchRepository.*(..))"
+            + " || execution(public * com.kiwipay.kiwipay_loan_backend.repository.LeadStatsRepository.*(..))"
+            + " || execution(public * com.kiwipay.kiwipay_loan_backend.repository.LeadStatusEventRepository.*(..))"
+            + " || execution(public * com.kiwipay.kiwipay_loan_backend.repository.LeadOutboxRepository.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Duration of lead service, catalog and lead JDBC repository calls")
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private String outcomeOf(Throwable e) {
+        if (e instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof BusinessException) {
+            return "business_error";
+        }
+        return "error";
+    }
+}
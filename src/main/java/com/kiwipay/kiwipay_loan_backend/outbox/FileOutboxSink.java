@@ -0,0 +1,55 @@
+package com.kiwipay.kiwipay_loan_backend.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sink that appends every event as one NDJSON line to a local file.
+ * Each batch is forced to disk before it is acknowledged, so delivered events survive a crash.
+ */
+@Slf4j
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(Path path, ObjectMapper objectMapper) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.objectMapper = objectMapper;
+        if (this.path.getParent() != null) {
+            Files.createDirectories(this.path.getParent());
+        }
+        log.info("Lead events will be appended to {}", this.path);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            for (OutboxMessage message : messages) {
+                ObjectNode line = objectMapper.createObjectNode();
+                line.put("id", message.id());
+                line.put("type", message.eventType().name());
+                line.put("leadId", message.leadId());
+                line.put("createdAt", message.createdAt().toString());
+                line.set("payload", objectMapper.readTree(message.payload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.write('\n');
+            }
+            writer.flush();
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.kiwipay.kiwipay_loan_backend.outbox;
+
+/**
+ * Kinds of lead events published to downstream systems.
+ */
+public enum LeadEventType {
+    LEAD_CREATED,
+    LEAD_STATUS_CHANGED,
+    LEAD_UPDATED
+}
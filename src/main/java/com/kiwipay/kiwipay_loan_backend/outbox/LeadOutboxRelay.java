@@ -0,0 +1,175 @@
+package com.kiwipay.kiwipay_loan_backend.outbox;
+
+import com.kiwipay.kiwipay_loan_backend.repository.LeadOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers pending outbox rows to the configured {@link OutboxSink}.
+ * Each batch is claimed with FOR UPDATE SKIP LOCKED and marked published in the same
+ * transaction as the sink call, so several replicas can relay concurrently without
+ * delivering a row twice while it succeeds (at least once delivery). When the sink rejects
+ * a batch its rows are retried one at a time, so a single bad event cannot hold back the
+ * good ones; each row that still fails waits an exponential backoff before being claimed
+ * again and is dead-lettered (dead_lettered_at set, never claimed again) after max-attempts
+ * failures. Order is by outbox id within a batch only: rows in backoff are overtaken.
+ */
+@Component
+@ConditionalOnProperty(name = "kiwipay.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class LeadOutboxRelay {
+
+    // Rows deleted per statement when purging delivered events
+    private static final int PURGE_CHUNK_SIZE = 10_000;
+
+    private final LeadOutboxRepository leadOutboxRepository;
+    private final OutboxSink outboxSink;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${kiwipay.outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${kiwipay.outbox.relay.max-batches-per-poll:50}")
+    private int maxBatchesPerPoll;
+
+    @Value("${kiwipay.outbox.relay.max-attempts:20}")
+    private int maxAttempts;
+
+    @Value("${kiwipay.outbox.relay.retry-backoff:PT1S}")
+    private Duration retryBackoff;
+
+    @Value("${kiwipay.outbox.relay.max-retry-backoff:PT1H}")
+    private Duration maxRetryBackoff;
+
+    @Value("${kiwipay.outbox.retention:P7D}")
+    private Duration retention;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter published;
+    private Counter failed;
+    private Counter deadLettered;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        published = Counter.builder("kiwipay.outbox.published")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        failed = Counter.builder("kiwipay.outbox.failed")
+                .description("Outbox event deliveries that failed and will be retried")
+                .register(meterRegistry);
+        deadLettered = Counter.builder("kiwipay.outbox.dead_lettered")
+                .description("Outbox events given up after max-attempts failed deliveries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays full batches until the backlog is drained, a batch fails or max-batches-per-poll is reached.
+     */
+    @Scheduled(fixedDelayString = "${kiwipay.outbox.relay.poll-interval:PT1S}")
+    public void relay() {
+        for (int batch = 0; batch < maxBatchesPerPoll; batch++) {
+            Integer delivered = transactionTemplate.execute(status -> relayBatch());
+            if (delivered == null || delivered < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deletes events delivered longer ago than the retention.
+     */
+    @Scheduled(fixedDelayString = "${kiwipay.outbox.purge-interval:PT1H}",
+               initialDelayString = "${kiwipay.outbox.purge-interval:PT1H}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = leadOutboxRepository.purgePublished(before, PURGE_CHUNK_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_CHUNK_SIZE);
+
+        if (total > 0) {
+            log.info("Purged {} delivered outbox events older than {}", total, before);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> messages = leadOutboxRepository.claim(batchSize);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = messages.stream().map(OutboxMessage::id).toList();
+
+        try {
+            outboxSink.publish(messages);
+        } catch (Exception e) {
+            log.warn("Outbox sink rejected {} events starting at id {}; retrying them one at a time",
+                     messages.size(), ids.get(0), e);
+            retryOneByOne(messages);
+            // Stop this poll: if the sink is down the next batches would fail the same way
+            return -1;
+        }
+
+        leadOutboxRepository.markPublished(ids);
+        published.increment(messages.size());
+        return messages.size();
+    }
+
+    private void retryOneByOne(List<OutboxMessage> messages) {
+        List<Long> delivered = new ArrayList<>();
+        for (OutboxMessage message : messages) {
+            try {
+                outboxSink.publish(List.of(message));
+                delivered.add(message.id());
+            } catch (Exception e) {
+                recordFailure(message, e);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            leadOutboxRepository.markPublished(delivered);
+            published.increment(delivered.size());
+        }
+    }
+
+    private void recordFailure(OutboxMessage message, Exception e) {
+        int attempts = message.attempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.error("Outbox event {} ({} for lead {}) dead-lettered after {} failed attempts",
+                      message.id(), message.eventType(), message.leadId(), attempts, e);
+            leadOutboxRepository.markDeadLettered(message.id(), e.toString());
+            deadLettered.increment();
+        } else {
+            Duration retryAfter = backoff(attempts);
+            log.debug("Outbox event {} failed (attempt {}), retrying in {}", message.id(), attempts, retryAfter);
+            leadOutboxRepository.markFailed(message.id(), e.toString(), retryAfter);
+            failed.increment();
+        }
+    }
+
+    /**
+     * retry-backoff doubled per failed attempt, capped at max-retry-backoff.
+     */
+    private Duration backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration delay = retryBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+}
@@ -0,0 +1,73 @@
+package com.kiwipay.kiwipay_loan_backend.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiwipay.kiwipay_loan_backend.entity.Lead;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadOutboxRepository;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadOutboxRepository.Entry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends lead events to the outbox in the caller's transaction, so an event exists
+ * if and only if the lead change it describes was committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeadOutboxWriter {
+
+    private final LeadOutboxRepository leadOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorProvider;
+
+    /**
+     * Event body: the lead state after the change. previousStatus is set only when the status changed.
+     */
+    public record Payload(long leadId, LeadStatus status, LeadStatus previousStatus, Long clinicId,
+                          Long medicalSpecialtyId, LocalDateTime occurredAt, String changedBy) {
+    }
+
+    public void created(List<Lead> leads) {
+        String auditor = currentAuditor();
+        List<Entry> entries = new ArrayList<>(leads.size());
+        for (Lead lead : leads) {
+            entries.add(entry(LeadEventType.LEAD_CREATED, lead, null, lead.getCreatedAt(), auditor));
+        }
+        leadOutboxRepository.insertAll(entries);
+    }
+
+    public void statusChanged(Lead lead, LeadStatus from) {
+        leadOutboxRepository.insertAll(List.of(
+                entry(LeadEventType.LEAD_STATUS_CHANGED, lead, from, LocalDateTime.now(), currentAuditor())));
+    }
+
+    /**
+     * Records a general update; from is the status before the update, or null when it did not change.
+     */
+    public void updated(Lead lead, LeadStatus from) {
+        leadOutboxRepository.insertAll(List.of(
+                entry(LeadEventType.LEAD_UPDATED, lead, from, LocalDateTime.now(), currentAuditor())));
+    }
+
+    private Entry entry(LeadEventType type, Lead lead, LeadStatus previousStatus,
+                        LocalDateTime occurredAt, String auditor) {
+        Payload payload = new Payload(lead.getId(), lead.getStatus(), previousStatus,
+                lead.getClinic().getId(), lead.getMedicalSpecialty().getId(),
+                occurredAt != null ? occurredAt : LocalDateTime.now(), auditor);
+        try {
+            return new Entry(lead.getId(), type, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize lead event for lead " + lead.getId(), e);
+        }
+    }
+
+    private String currentAuditor() {
+        return auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+    }
+}
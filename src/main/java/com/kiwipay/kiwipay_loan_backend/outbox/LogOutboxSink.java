@@ -0,0 +1,20 @@
+package com.kiwipay.kiwipay_loan_backend.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Sink that writes every event to the application log. Meant for development and tests.
+ */
+@Slf4j
+public class LogOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            log.info("Lead event {} {} for lead {}: {}",
+                     message.id(), message.eventType(), message.leadId(), message.payload());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.kiwipay.kiwipay_loan_backend.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox row claimed for delivery. The id increases with insertion order and can be
+ * used by consumers to discard duplicates, since delivery is at least once.
+ *
+ * @param payload the event as a JSON document
+ * @param attempts failed deliveries so far
+ */
+public record OutboxMessage(long id, long leadId, LeadEventType eventType, String payload,
+                            LocalDateTime createdAt, int attempts) {
+}
@@ -0,0 +1,14 @@
+package com.kiwipay.kiwipay_loan_backend.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox events delivered by LeadOutboxRelay.
+ * Implementations receive the claimed batch in id order and must throw when any message
+ * could not be delivered; the messages of a rejected batch are then retried one at a time,
+ * so a sink has to tolerate messages it already accepted.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -2,8 +2,11 @@ package com.kiwipay.kiwipay_loan_backend.repository;
 
 import com.kiwipay.kiwipay_loan_backend.entity.Clinic;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,4 +35,10 @@ public interface ClinicRepository extends JpaRepository<Clinic, Long> {
      * Find clinic by exact name.
      */
     Optional<Clinic> findByName(String name);
+    
+    /**
+     * Find which of the given names already exist, in a single query.
+     */
+    @Query("SELECT c.name FROM Clinic c WHERE c.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
 } 
\ No newline at end of file
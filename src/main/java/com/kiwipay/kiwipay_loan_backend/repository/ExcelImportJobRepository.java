@@ -0,0 +1,136 @@
+package com.kiwipay.kiwipay_loan_backend.repository;
+
+import com.kiwipay.kiwipay_loan_backend.dto.response.ExcelImportJobResponse;
+import com.kiwipay.kiwipay_loan_backend.service.ExcelImportJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC repository for the excel_import_jobs table.
+ * The node running an import saves snapshots of its in-memory ExcelImportJob; any node reads
+ * them back. A finished (or swept) job is never overwritten by a late snapshot.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExcelImportJobRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO excel_import_jobs (id, file_name, status, created_at) " +
+            "VALUES (:id, :fileName, :status, :createdAt)";
+
+    private static final String SAVE_SQL =
+            "UPDATE excel_import_jobs SET status = :status, rows_read = :rowsRead, " +
+            "rows_inserted = :rowsInserted, rows_skipped = :rowsSkipped, rows_failed = :rowsFailed, " +
+            "started_at = :startedAt, finished_at = :finishedAt, error_message = :errorMessage, " +
+            "heartbeat_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id AND status IN ('PENDING', 'RUNNING')";
+
+    private static final String FIND_SQL =
+            "SELECT id, file_name, status, rows_read, rows_inserted, rows_skipped, rows_failed, " +
+            "CASE WHEN started_at IS NULL THEN 0 " +
+            "ELSE rows_read * 1000.0 / GREATEST(1, EXTRACT(EPOCH FROM " +
+            "(COALESCE(finished_at, CURRENT_TIMESTAMP) - started_at)) * 1000) END AS rows_per_second, " +
+            "created_at, started_at, finished_at, error_message " +
+            "FROM excel_import_jobs WHERE id = :id";
+
+    private static final String FAIL_STALE_SQL =
+            "UPDATE excel_import_jobs SET status = 'FAILED', finished_at = CURRENT_TIMESTAMP, " +
+            "error_message = :errorMessage " +
+            "WHERE status IN ('PENDING', 'RUNNING') AND heartbeat_at < :staleBefore";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM excel_import_jobs WHERE finished_at < :before";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insert(ExcelImportJob job) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", job.getId())
+                .addValue("fileName", job.getFileName())
+                .addValue("status", job.getStatus().name())
+                .addValue("createdAt", toOffset(job.getCreatedAt()));
+        jdbcTemplate.update(INSERT_SQL, params);
+    }
+
+    /**
+     * Writes the current progress of a job and refreshes its heartbeat.
+     */
+    public void save(ExcelImportJob job) {
+        String errorMessage = job.getErrorMessage();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", job.getId())
+                .addValue("status", job.getStatus().name())
+                .addValue("rowsRead", job.getRowsRead())
+                .addValue("rowsInserted", job.getRowsInserted())
+                .addValue("rowsSkipped", job.getRowsSkipped())
+                .addValue("rowsFailed", job.getRowsFailed())
+                .addValue("startedAt", toOffset(job.getStartedAt()))
+                .addValue("finishedAt", toOffset(job.getFinishedAt()))
+                .addValue("errorMessage", errorMessage != null && errorMessage.length() > MAX_ERROR_LENGTH
+                        ? errorMessage.substring(0, MAX_ERROR_LENGTH)
+                        : errorMessage);
+        jdbcTemplate.update(SAVE_SQL, params);
+    }
+
+    public Optional<ExcelImportJobResponse> findById(String id) {
+        List<ExcelImportJobResponse> jobs = jdbcTemplate.query(FIND_SQL, Map.of("id", id),
+                (rs, rowNum) -> ExcelImportJobResponse.builder()
+                        .jobId(rs.getString("id"))
+                        .fileName(rs.getString("file_name"))
+                        .status(ExcelImportJob.Status.valueOf(rs.getString("status")))
+                        .rowsRead(rs.getLong("rows_read"))
+                        .rowsInserted(rs.getLong("rows_inserted"))
+                        .rowsSkipped(rs.getLong("rows_skipped"))
+                        .rowsFailed(rs.getLong("rows_failed"))
+                        .rowsPerSecond(rs.getDouble("rows_per_second"))
+                        .createdAt(toInstant(rs, "created_at"))
+                        .startedAt(toInstant(rs, "started_at"))
+                        .finishedAt(toInstant(rs, "finished_at"))
+                        .errorMessage(rs.getString("error_message"))
+                        .build());
+        return jobs.stream().findFirst();
+    }
+
+    /**
+     * Fails the pending or running jobs whose node has not reported since staleBefore.
+     *
+     * @return the number of jobs failed
+     */
+    public int failStale(Instant staleBefore, String errorMessage) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("staleBefore", toOffset(staleBefore))
+                .addValue("errorMessage", errorMessage);
+        return jdbcTemplate.update(FAIL_STALE_SQL, params);
+    }
+
+    /**
+     * Deletes the jobs finished before the given time.
+     *
+     * @return the number of rows deleted
+     */
+    public int purgeFinished(Instant before) {
+        return jdbcTemplate.update(PURGE_SQL, Map.of("before", toOffset(before)));
+    }
+
+    private static OffsetDateTime toOffset(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    private static Instant toInstant(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value != null ? value.toInstant() : null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.kiwipay.kiwipay_loan_backend.repository;
+
+import com.kiwipay.kiwipay_loan_backend.entity.BaseEntity;
+import com.kiwipay.kiwipay_loan_backend.entity.Lead;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC repository for bulk lead inserts.
+ * Sends the rows as plain JDBC batches, skipping the persistence context for large ingests.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeadBatchRepository {
+
+    private static final String ALLOCATE_ID_BLOCKS_SQL =
+            "SELECT nextval('" + BaseEntity.ID_SEQUENCE + "') FROM generate_series(1, :blocks)";
+
+    private static final String INSERT_LEAD_SQL =
+            "INSERT INTO leads (id, receptionist_name, client_name, clinic_id, medical_specialty_id, dni, " +
+            "monthly_income, treatment_cost, phone, email, status, origin, " +
+            "created_at, updated_at, created_by, updated_by) " +
+            "VALUES (:id, :receptionistName, :clientName, :clinicId, :medicalSpecialtyId, :dni, " +
+            ":monthlyIncome, :treatmentCost, :phone, :email, :status, :origin, " +
+            ":createdAt, :updatedAt, :createdBy, :updatedBy)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorProvider;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:25}")
+    private int batchSize;
+
+    /**
+     * Inserts the given leads in JDBC batches and fills in their IDs and audit fields.
+     * IDs are taken from the shared sequence with the same pooled-lo scheme Hibernate uses,
+     * one nextval per block of {@link BaseEntity#ID_ALLOCATION_SIZE} rows.
+     *
+     * @param leads the new leads, with clinic and medical specialty already resolved
+     */
+    public void insertAll(List<Lead> leads) {
+        String auditor = auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+        LocalDateTime now = LocalDateTime.now();
+        assignIds(leads);
+
+        for (int from = 0; from < leads.size(); from += batchSize) {
+            List<Lead> chunk = leads.subList(from, Math.min(from + batchSize, leads.size()));
+
+            List<SqlParameterSource> batchArgs = new ArrayList<>(chunk.size());
+            for (Lead lead : chunk) {
+                lead.setCreatedAt(now);
+                lead.setUpdatedAt(now);
+                lead.setCreatedBy(auditor);
+                lead.setUpdatedBy(auditor);
+                batchArgs.add(toParameters(lead));
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_LEAD_SQL, batchArgs.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    private void assignIds(List<Lead> leads) {
+        int blocks = (leads.size() + BaseEntity.ID_ALLOCATION_SIZE - 1) / BaseEntity.ID_ALLOCATION_SIZE;
+        List<Long> blockStarts = jdbcTemplate.queryForList(ALLOCATE_ID_BLOCKS_SQL,
+                                                           Map.of("blocks", blocks), Long.class);
+        for (int i = 0; i < leads.size(); i++) {
+            long blockStart = blockStarts.get(i / BaseEntity.ID_ALLOCATION_SIZE);
+            leads.get(i).setId(blockStart + i % BaseEntity.ID_ALLOCATION_SIZE);
+        }
+    }
+
+    private SqlParameterSource toParameters(Lead lead) {
+        return new MapSqlParameterSource()
+                .addValue("id", lead.getId())
+                .addValue("receptionistName", lead.getReceptionistName())
+                .addValue("clientName", lead.getClientName())
+                .addValue("clinicId", lead.getClinic().getId())
+                .addValue("medicalSpecialtyId", lead.getMedicalSpecialty().getId())
+                .addValue("dni", lead.getDni())
+                .addValue("monthlyIncome", lead.getMonthlyIncome())
+                .addValue("treatmentCost", lead.getTreatmentCost())
+                .addValue("phone", lead.getPhone())
+                .addValue("email", lead.getEmail())
+                .addValue("status", lead.getStatus().name())
+                .addValue("origin", lead.getOrigin())
+                .addValue("createdAt", lead.getCreatedAt())
+                .addValue("updatedAt", lead.getUpdatedAt())
+                .addValue("createdBy", lead.getCreatedBy())
+                .addValue("updatedBy", lead.getUpdatedBy());
+    }
+}
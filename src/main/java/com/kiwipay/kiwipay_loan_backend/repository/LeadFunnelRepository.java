@@ -0,0 +1,251 @@
+package com.kiwipay.kiwipay_loan_backend.repository;
+
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.service.LeadFunnelGrouping;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC repository for the funnel rollups (V9__create_lead_funnel_rollups.sql):
+ * the per-lead facts, the rollup counts and the refresh watermark.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeadFunnelRepository {
+
+    private static final String WATERMARK = "funnel";
+
+    private static final String LOCK_WATERMARK_SQL =
+            "SELECT last_updated_at, last_id, refreshed_at FROM lead_funnel_watermark " +
+            "WHERE name = :name FOR UPDATE SKIP LOCKED";
+
+    private static final String FIND_WATERMARK_SQL =
+            "SELECT last_updated_at, last_id, refreshed_at FROM lead_funnel_watermark WHERE name = :name";
+
+    // The lag keeps rows of still-open transactions, whose updated_at is already in the past, out of reach
+    private static final String FIND_CHANGED_SQL =
+            "SELECT id, updated_at, date_trunc('month', created_at)::date AS cohort_month, " +
+            "clinic_id, medical_specialty_id, status " +
+            "FROM leads " +
+            "WHERE (updated_at, id) > (:lastUpdatedAt, :lastId) " +
+            "AND updated_at < LOCALTIMESTAMP - make_interval(secs => :lagSeconds) " +
+            "ORDER BY updated_at, id " +
+            "LIMIT :limit";
+
+    private static final String FIND_FACTS_SQL =
+            "SELECT lead_id, cohort_month, clinic_id, medical_specialty_id, furthest_stage, rejected " +
+            "FROM lead_funnel_facts WHERE lead_id IN (:ids)";
+
+    private static final String UPSERT_FACT_SQL =
+            "INSERT INTO lead_funnel_facts (lead_id, cohort_month, clinic_id, medical_specialty_id, furthest_stage, rejected) " +
+            "VALUES (:leadId, :cohortMonth, :clinicId, :medicalSpecialtyId, :furthestStage, :rejected) " +
+            "ON CONFLICT (lead_id) DO UPDATE SET cohort_month = EXCLUDED.cohort_month, " +
+            "clinic_id = EXCLUDED.clinic_id, medical_specialty_id = EXCLUDED.medical_specialty_id, " +
+            "furthest_stage = EXCLUDED.furthest_stage, rejected = EXCLUDED.rejected";
+
+    private static final String UPSERT_ROLLUP_SQL =
+            "INSERT INTO lead_funnel_rollup (cohort_month, clinic_id, medical_specialty_id, furthest_stage, rejected, lead_count) " +
+            "VALUES (:cohortMonth, :clinicId, :medicalSpecialtyId, :furthestStage, :rejected, :delta) " +
+            "ON CONFLICT (cohort_month, clinic_id, medical_specialty_id, furthest_stage, rejected) " +
+            "DO UPDATE SET lead_count = lead_funnel_rollup.lead_count + EXCLUDED.lead_count";
+
+    private static final String ADVANCE_WATERMARK_SQL =
+            "UPDATE lead_funnel_watermark SET last_updated_at = :lastUpdatedAt, last_id = :lastId, " +
+            "refreshed_at = LOCALTIMESTAMP WHERE name = :name";
+
+    private static final String MARK_REFRESHED_SQL =
+            "UPDATE lead_funnel_watermark SET refreshed_at = LOCALTIMESTAMP WHERE name = :name";
+
+    private static final String SUMMARY_SQL =
+            "SELECT %s AS group_key, furthest_stage, rejected, SUM(lead_count) AS lead_count " +
+            "FROM lead_funnel_rollup " +
+            "WHERE cohort_month BETWEEN :startMonth AND :endMonth%s " +
+            "GROUP BY 1, 2, 3 " +
+            "HAVING SUM(lead_count) <> 0";
+
+    // Rollup rows are upserted in a fixed order so concurrent refreshes lock them consistently
+    public static final Comparator<RollupKey> ROLLUP_KEY_ORDER = Comparator.comparing(RollupKey::cohortMonth)
+            .thenComparing(RollupKey::clinicId)
+            .thenComparing(RollupKey::medicalSpecialtyId)
+            .thenComparingInt(RollupKey::furthestStage)
+            .thenComparing(RollupKey::rejected);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public record Watermark(LocalDateTime lastUpdatedAt, long lastId, LocalDateTime refreshedAt) {
+    }
+
+    /**
+     * A lead changed after the watermark, as currently stored.
+     */
+    public record Change(long leadId, LocalDateTime updatedAt, LocalDate cohortMonth,
+                         long clinicId, long medicalSpecialtyId, LeadStatus status) {
+    }
+
+    public record Fact(long leadId, LocalDate cohortMonth, long clinicId, long medicalSpecialtyId,
+                       int furthestStage, boolean rejected) {
+
+        public RollupKey rollupKey() {
+            return new RollupKey(cohortMonth, clinicId, medicalSpecialtyId, furthestStage, rejected);
+        }
+    }
+
+    public record RollupKey(LocalDate cohortMonth, long clinicId, long medicalSpecialtyId,
+                            int furthestStage, boolean rejected) {
+    }
+
+    /**
+     * Aggregated rollup row for one group of the funnel query.
+     */
+    public record RollupRow(String groupKey, int furthestStage, boolean rejected, long count) {
+    }
+
+    /**
+     * Locks the watermark row for the current transaction.
+     * Empty when another transaction (e.g. another replica) is already refreshing.
+     */
+    public Optional<Watermark> lockWatermark() {
+        return jdbcTemplate.query(LOCK_WATERMARK_SQL, Map.of("name", WATERMARK), (rs, rowNum) -> watermark(rs))
+                .stream().findFirst();
+    }
+
+    public Optional<Watermark> findWatermark() {
+        return jdbcTemplate.query(FIND_WATERMARK_SQL, Map.of("name", WATERMARK), (rs, rowNum) -> watermark(rs))
+                .stream().findFirst();
+    }
+
+    public List<Change> findChangedAfter(Watermark watermark, Duration lag, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lastUpdatedAt", watermark.lastUpdatedAt())
+                .addValue("lastId", watermark.lastId())
+                .addValue("lagSeconds", lag.toSeconds())
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(FIND_CHANGED_SQL, params, (rs, rowNum) -> new Change(
+                rs.getLong("id"),
+                rs.getObject("updated_at", LocalDateTime.class),
+                rs.getObject("cohort_month", LocalDate.class),
+                rs.getLong("clinic_id"),
+                rs.getLong("medical_specialty_id"),
+                LeadStatus.valueOf(rs.getString("status"))));
+    }
+
+    public Map<Long, Fact> findFacts(Collection<Long> leadIds) {
+        Map<Long, Fact> facts = new HashMap<>();
+        if (leadIds.isEmpty()) {
+            return facts;
+        }
+        jdbcTemplate.query(FIND_FACTS_SQL, Map.of("ids", leadIds), rs -> {
+            Fact fact = new Fact(
+                    rs.getLong("lead_id"),
+                    rs.getObject("cohort_month", LocalDate.class),
+                    rs.getLong("clinic_id"),
+                    rs.getLong("medical_specialty_id"),
+                    rs.getInt("furthest_stage"),
+                    rs.getBoolean("rejected"));
+            facts.put(fact.leadId(), fact);
+        });
+        return facts;
+    }
+
+    public void saveFacts(List<Fact> facts) {
+        if (facts.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batchArgs = facts.stream()
+                .map(fact -> new MapSqlParameterSource()
+                        .addValue("leadId", fact.leadId())
+                        .addValue("cohortMonth", fact.cohortMonth())
+                        .addValue("clinicId", fact.clinicId())
+                        .addValue("medicalSpecialtyId", fact.medicalSpecialtyId())
+                        .addValue("furthestStage", fact.furthestStage())
+                        .addValue("rejected", fact.rejected()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_FACT_SQL, batchArgs);
+    }
+
+    /**
+     * Applies signed lead count deltas to the rollup; iterate the map in {@link #ROLLUP_KEY_ORDER}.
+     */
+    public void applyRollupDeltas(Map<RollupKey, Long> deltas) {
+        SqlParameterSource[] batchArgs = deltas.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("cohortMonth", entry.getKey().cohortMonth())
+                        .addValue("clinicId", entry.getKey().clinicId())
+                        .addValue("medicalSpecialtyId", entry.getKey().medicalSpecialtyId())
+                        .addValue("furthestStage", entry.getKey().furthestStage())
+                        .addValue("rejected", entry.getKey().rejected())
+                        .addValue("delta", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        if (batchArgs.length > 0) {
+            jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, batchArgs);
+        }
+    }
+
+    public void advanceWatermark(LocalDateTime lastUpdatedAt, long lastId) {
+        jdbcTemplate.update(ADVANCE_WATERMARK_SQL, new MapSqlParameterSource()
+                .addValue("lastUpdatedAt", lastUpdatedAt)
+                .addValue("lastId", lastId)
+                .addValue("name", WATERMARK));
+    }
+
+    public void markRefreshed() {
+        jdbcTemplate.update(MARK_REFRESHED_SQL, Map.of("name", WATERMARK));
+    }
+
+    /**
+     * Sums the rollup by group, furthest stage and rejection for the given cohort months.
+     * Optional filters only render their predicate when present.
+     */
+    public List<RollupRow> summarize(LeadFunnelGrouping grouping, LocalDate startMonth, LocalDate endMonth,
+                                     Long clinicId, Long medicalSpecialtyId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startMonth", startMonth)
+                .addValue("endMonth", endMonth);
+        StringBuilder filters = new StringBuilder();
+        if (clinicId != null) {
+            filters.append(" AND clinic_id = :clinicId");
+            params.addValue("clinicId", clinicId);
+        }
+        if (medicalSpecialtyId != null) {
+            filters.append(" AND medical_specialty_id = :medicalSpecialtyId");
+            params.addValue("medicalSpecialtyId", medicalSpecialtyId);
+        }
+
+        String groupKey = switch (grouping) {
+            case NONE -> "'total'";
+            case MONTH -> "to_char(cohort_month, 'YYYY-MM')";
+            case CLINIC -> "clinic_id::text";
+            case SPECIALTY -> "medical_specialty_id::text";
+        };
+        String sql = SUMMARY_SQL.formatted(groupKey, filters);
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new RollupRow(
+                rs.getString("group_key"),
+                rs.getInt("furthest_stage"),
+                rs.getBoolean("rejected"),
+                rs.getLong("lead_count")));
+    }
+
+    private static Watermark watermark(ResultSet rs) throws SQLException {
+        return new Watermark(
+                rs.getObject("last_updated_at", LocalDateTime.class),
+                rs.getLong("last_id"),
+                rs.getObject("refreshed_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,132 @@
+package com.kiwipay.kiwipay_loan_backend.repository;
+
+import com.kiwipay.kiwipay_loan_backend.outbox.LeadEventType;
+import com.kiwipay.kiwipay_loan_backend.outbox.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC repository for the lead_outbox table.
+ * Inserts join the caller's transaction; claimed rows stay locked until the relay's
+ * transaction ends, and concurrent relays skip them instead of waiting. Rows waiting for
+ * their retry backoff and dead-lettered rows are never claimed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeadOutboxRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO lead_outbox (lead_id, event_type, payload) " +
+            "VALUES (:leadId, :eventType, CAST(:payload AS jsonb))";
+
+    private static final String CLAIM_SQL =
+            "SELECT id, lead_id, event_type, payload::text AS payload, created_at, attempts " +
+            "FROM lead_outbox " +
+            "WHERE published_at IS NULL AND dead_lettered_at IS NULL " +
+            "AND next_attempt_at <= CURRENT_TIMESTAMP " +
+            "ORDER BY id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_PUBLISHED_SQL =
+            "UPDATE lead_outbox SET published_at = CURRENT_TIMESTAMP, last_error = NULL WHERE id IN (:ids)";
+
+    private static final String MARK_FAILED_SQL =
+            "UPDATE lead_outbox SET attempts = attempts + 1, last_error = :error, " +
+            "next_attempt_at = CURRENT_TIMESTAMP + (:retryAfterMillis * INTERVAL '1 millisecond') " +
+            "WHERE id = :id";
+
+    private static final String MARK_DEAD_LETTERED_SQL =
+            "UPDATE lead_outbox SET attempts = attempts + 1, last_error = :error, " +
+            "dead_lettered_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM lead_outbox WHERE id IN (" +
+            "SELECT id FROM lead_outbox WHERE published_at < :before LIMIT :limit)";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * An event to append: the lead it refers to, its type and its JSON payload.
+     */
+    public record Entry(long leadId, LeadEventType eventType, String payload) {
+    }
+
+    public void insertAll(List<Entry> entries) {
+        SqlParameterSource[] batchArgs = entries.stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("leadId", entry.leadId())
+                        .addValue("eventType", entry.eventType().name())
+                        .addValue("payload", entry.payload()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+
+    /**
+     * Locks up to limit pending rows, oldest first, skipping rows claimed by other relays.
+     * Must run inside a transaction.
+     */
+    public List<OutboxMessage> claim(int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, Map.of("limit", limit), (rs, rowNum) -> new OutboxMessage(
+                rs.getLong("id"),
+                rs.getLong("lead_id"),
+                LeadEventType.valueOf(rs.getString("event_type")),
+                rs.getString("payload"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getInt("attempts")));
+    }
+
+    public void markPublished(List<Long> ids) {
+        jdbcTemplate.update(MARK_PUBLISHED_SQL, Map.of("ids", ids));
+    }
+
+    /**
+     * Counts a failed delivery and keeps the row out of the claims until retryAfter has passed.
+     */
+    public void markFailed(long id, String error, Duration retryAfter) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("error", truncate(error))
+                .addValue("retryAfterMillis", retryAfter.toMillis());
+        jdbcTemplate.update(MARK_FAILED_SQL, params);
+    }
+
+    /**
+     * Counts a failed delivery and takes the row out of the relay for good.
+     */
+    public void markDeadLettered(long id, String error) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("error", truncate(error));
+        jdbcTemplate.update(MARK_DEAD_LETTERED_SQL, params);
+    }
+
+    /**
+     * Deletes up to limit rows published before the given time.
+     *
+     * @return the number of rows deleted
+     */
+    public int purgePublished(LocalDateTime before, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("before", before)
+                .addValue("limit", limit);
+        return jdbcTemplate.update(PURGE_SQL, params);
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error;
+    }
+}
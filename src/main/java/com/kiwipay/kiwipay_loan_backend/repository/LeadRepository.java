@@ -1,24 +1,26 @@
 package com.kiwipay.kiwipay_loan_backend.repository;
 
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse;
 import com.kiwipay.kiwipay_loan_backend.entity.Lead;
 import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for Lead entity.
  * Following Spring Data JPA best practices.
+ * Filtered list queries are built per filter shape in {@link LeadRepositoryImpl}.
  */
 @Repository
-public interface LeadRepository extends JpaRepository<Lead, Long> {
+public interface LeadRepository extends JpaRepository<Lead, Long>, LeadRepositoryCustom {
 
     /**
      * Find lead by ID with clinic and medical specialty loaded.
@@ -30,26 +32,26 @@ public interface LeadRepository extends JpaRepository<Lead, Long> {
     Optional<Lead> findByIdWithDetails(@Param("id") Long id);
 
     /**
-     * Find all leads with filters and pagination.
+     * Find lead by ID and lock its row (SELECT ... FOR UPDATE) until the transaction ends.
+     * Used by read-modify-write updates so concurrent changes of the same lead are serialized
+     * and each one sees the status left by the previous one. No fetch joins: Postgres cannot
+     * lock the nullable side of an outer join.
      */
-    @Query("SELECT l FROM Lead l " +
-           "LEFT JOIN FETCH l.clinic c " +
-           "LEFT JOIN FETCH l.medicalSpecialty ms " +
-           "WHERE (:status IS NULL OR l.status = :status) " +
-           "AND (:clinicId IS NULL OR c.id = :clinicId) " +
-           "AND (:startDate IS NULL OR l.createdAt >= :startDate) " +
-           "AND (:endDate IS NULL OR l.createdAt <= :endDate)")
-    Page<Lead> findAllWithFilters(@Param("status") LeadStatus status,
-                                  @Param("clinicId") Long clinicId,
-                                  @Param("startDate") LocalDateTime startDate,
-                                  @Param("endDate") LocalDateTime endDate,
-                                  Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Lead l WHERE l.id = :id")
+    Optional<Lead> findByIdForUpdate(@Param("id") Long id);
 
     /**
      * Check if a lead with the given DNI already exists.
      */
     boolean existsByDni(String dni);
 
+    /**
+     * Find which of the given DNIs are already registered, in a single query.
+     */
+    @Query("SELECT l.dni FROM Lead l WHERE l.dni IN :dnis")
+    List<String> findExistingDnis(@Param("dnis") Collection<String> dnis);
+
     /**
      * Count leads by status.
      */
@@ -61,27 +63,13 @@ public interface LeadRepository extends JpaRepository<Lead, Long> {
     boolean existsByDniAndIdNot(String dni, Long id);
 
     /**
-     * Find all leads ordered by creation date descending.
-     */
-    @Query("SELECT l FROM Lead l " +
-           "LEFT JOIN FETCH l.clinic " +
-           "LEFT JOIN FETCH l.medicalSpecialty " +
-           "ORDER BY l.createdAt DESC")
-    List<Lead> findAllOrderByCreatedAtDesc();
-
-    /**
-     * Find all leads with filters without pagination.
+     * Find all leads ordered by creation date descending, projected to the list view.
      */
-    @Query("SELECT l FROM Lead l " +
-           "LEFT JOIN FETCH l.clinic c " +
-           "LEFT JOIN FETCH l.medicalSpecialty ms " +
-           "WHERE (:status IS NULL OR l.status = :status) " +
-           "AND (:clinicId IS NULL OR c.id = :clinicId) " +
-           "AND (:startDate IS NULL OR l.createdAt >= :startDate) " +
-           "AND (:endDate IS NULL OR l.createdAt <= :endDate) " +
+    @Query("SELECT new com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse(" +
+           "l.id, l.clientName, l.dni, c.name, ms.name, l.treatmentCost, l.phone, l.status, l.createdAt) " +
+           "FROM Lead l " +
+           "LEFT JOIN l.clinic c " +
+           "LEFT JOIN l.medicalSpecialty ms " +
            "ORDER BY l.createdAt DESC")
-    List<Lead> findAllWithFiltersNoPagination(@Param("status") LeadStatus status,
-                                             @Param("clinicId") Long clinicId,
-                                             @Param("startDate") LocalDateTime startDate,
-                                             @Param("endDate") LocalDateTime endDate);
+    List<LeadResponse> findAllOrderByCreatedAtDesc();
 } 
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.kiwipay.kiwipay_loan_backend.repository;
+
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered lead list queries. Every filter argument is optional; a null argument
+ * adds no predicate at all, so each combination of filters runs its own statement.
+ */
+public interface LeadRepositoryCustom {
+
+    /**
+     * Find all leads with filters and pagination, projected to the list view.
+     * Only whitelisted properties may be used to sort.
+     */
+    Page<LeadResponse> findAllWithFilters(LeadStatus status,
+                                          Long clinicId,
+                                          LocalDateTime startDate,
+                                          LocalDateTime endDate,
+                                          Pageable pageable);
+
+    /**
+     * Find the first keyset page of leads with filters, ordered by (createdAt, id) descending.
+     * The pageable only limits the window; no count query is issued.
+     */
+    List<LeadResponse> findFirstKeysetPage(LeadStatus status,
+                                           Long clinicId,
+                                           LocalDateTime startDate,
+                                           LocalDateTime endDate,
+                                           Pageable pageable);
+
+    /**
+     * Find the keyset page of leads that follows the given (createdAt, id) position.
+     * The pageable only limits the window; no count query is issued.
+     */
+    List<LeadResponse> findKeysetPageAfter(LeadStatus status,
+                                           Long clinicId,
+                                           LocalDateTime startDate,
+                                           LocalDateTime endDate,
+                                           LocalDateTime cursorCreatedAt,
+                                           Long cursorId,
+                                           Pageable pageable);
+
+    /**
+     * Find all leads with filters without pagination, projected to the list view.
+     */
+    List<LeadResponse> findAllWithFiltersNoPagination(LeadStatus status,
+                                                      Long clinicId,
+                                                      LocalDateTime startDate,
+                                                      LocalDateTime endDate);
+
+    /**
+     * Stream all leads with filters for exports, projected to the list view.
+     * Rows are fetched from a server-side cursor in chunks of the JDBC fetch size,
+     * so the stream must be consumed and closed inside a transaction.
+     */
+    Stream<LeadResponse> streamAllWithFilters(LeadStatus status,
+                                              Long clinicId,
+                                              LocalDateTime startDate,
+                                              LocalDateTime endDate);
+}
@@ -0,0 +1,225 @@
+package com.kiwipay.kiwipay_loan_backend.repository;
+
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.exception.BusinessException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Builds the filtered lead queries from the filters actually supplied.
+ * A catch-all "(:x IS NULL OR col = :x)" query shares one plan across every filter
+ * combination, and Postgres' generic plan for it usually cannot use an index.
+ * Here each combination yields a distinct JPQL string, so Hibernate caches its
+ * translation and the JDBC driver keeps a server-side prepared statement per shape,
+ * each planned for the index that matches its predicates.
+ */
+class LeadRepositoryImpl implements LeadRepositoryCustom {
+
+    private static final String SELECT_LIST_VIEW =
+            "SELECT new com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse(" +
+            "l.id, l.clientName, l.dni, c.name, ms.name, l.treatmentCost, l.phone, l.status, l.createdAt) " +
+            "FROM Lead l " +
+            "LEFT JOIN l.clinic c " +
+            "LEFT JOIN l.medicalSpecialty ms";
+
+    private static final String SELECT_COUNT = "SELECT COUNT(l) FROM Lead l";
+
+    private static final String KEYSET_ORDER = " ORDER BY l.createdAt DESC, l.id DESC";
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Properties the list endpoint may sort by, mapped to their JPQL path.
+     */
+    private static final Map<String, String> SORTABLE_PROPERTIES = Map.of(
+            "createdAt", "l.createdAt",
+            "updatedAt", "l.updatedAt",
+            "clientName", "l.clientName",
+            "treatmentCost", "l.treatmentCost",
+            "status", "l.status",
+            "id", "l.id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<LeadResponse> findAllWithFilters(LeadStatus status,
+                                                 Long clinicId,
+                                                 LocalDateTime startDate,
+                                                 LocalDateTime endDate,
+                                                 Pageable pageable) {
+        LeadFilter filter = new LeadFilter(status, clinicId, startDate, endDate);
+
+        TypedQuery<LeadResponse> query = entityManager.createQuery(
+                SELECT_LIST_VIEW + filter.where() + orderBy(pageable.getSort()), LeadResponse.class);
+        filter.bind(query);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(filter));
+    }
+
+    @Override
+    public List<LeadResponse> findFirstKeysetPage(LeadStatus status,
+                                                  Long clinicId,
+                                                  LocalDateTime startDate,
+                                                  LocalDateTime endDate,
+                                                  Pageable pageable) {
+        LeadFilter filter = new LeadFilter(status, clinicId, startDate, endDate);
+
+        TypedQuery<LeadResponse> query = entityManager.createQuery(
+                SELECT_LIST_VIEW + filter.where() + KEYSET_ORDER, LeadResponse.class);
+        filter.bind(query);
+        return query.setMaxResults(pageable.getPageSize()).getResultList();
+    }
+
+    @Override
+    public List<LeadResponse> findKeysetPageAfter(LeadStatus status,
+                                                  Long clinicId,
+                                                  LocalDateTime startDate,
+                                                  LocalDateTime endDate,
+                                                  LocalDateTime cursorCreatedAt,
+                                                  Long cursorId,
+                                                  Pageable pageable) {
+        LeadFilter filter = new LeadFilter(status, clinicId, startDate, endDate);
+        // A row-value comparison is an index range condition on (created_at DESC, id DESC); the OR form
+        // is only a filter, so deep pages scanned every newer row. The redundant bound keeps a range
+        // condition (and partition pruning) even where the tuple is expanded by the dialect
+        String where = filter.and("l.createdAt <= :cursorCreatedAt " +
+                "AND (l.createdAt, l.id) < (:cursorCreatedAt, :cursorId)");
+
+        TypedQuery<LeadResponse> query = entityManager.createQuery(
+                SELECT_LIST_VIEW + where + KEYSET_ORDER, LeadResponse.class);
+        filter.bind(query);
+        query.setParameter("cursorCreatedAt", cursorCreatedAt);
+        query.setParameter("cursorId", cursorId);
+        return query.setMaxResults(pageable.getPageSize()).getResultList();
+    }
+
+    @Override
+    public List<LeadResponse> findAllWithFiltersNoPagination(LeadStatus status,
+                                                             Long clinicId,
+                                                             LocalDateTime startDate,
+                                                             LocalDateTime endDate) {
+        LeadFilter filter = new LeadFilter(status, clinicId, startDate, endDate);
+
+        TypedQuery<LeadResponse> query = entityManager.createQuery(
+                SELECT_LIST_VIEW + filter.where() + KEYSET_ORDER, LeadResponse.class);
+        filter.bind(query);
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<LeadResponse> streamAllWithFilters(LeadStatus status,
+                                                     Long clinicId,
+                                                     LocalDateTime startDate,
+                                                     LocalDateTime endDate) {
+        LeadFilter filter = new LeadFilter(status, clinicId, startDate, endDate);
+
+        TypedQuery<LeadResponse> query = entityManager.createQuery(
+                SELECT_LIST_VIEW + filter.where() + KEYSET_ORDER, LeadResponse.class);
+        filter.bind(query);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE);
+        return query.getResultStream();
+    }
+
+    private long count(LeadFilter filter) {
+        TypedQuery<Long> query = entityManager.createQuery(SELECT_COUNT + filter.where(), Long.class);
+        filter.bind(query);
+        return query.getSingleResult();
+    }
+
+    /**
+     * Translates the requested sort into a whitelisted ORDER BY, always ending with id
+     * so that offset pages stay stable when several rows share the same sort values.
+     */
+    static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return KEYSET_ORDER;
+        }
+
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        Sort.Direction lastDirection = Sort.Direction.DESC;
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            String path = SORTABLE_PROPERTIES.get(order.getProperty());
+            if (path == null) {
+                throw new BusinessException("No se puede ordenar por el campo: " + order.getProperty());
+            }
+            if (orderBy.length() > " ORDER BY ".length()) {
+                orderBy.append(", ");
+            }
+            orderBy.append(path).append(order.isAscending() ? " ASC" : " DESC");
+            lastDirection = order.getDirection();
+            hasId |= "id".equals(order.getProperty());
+        }
+        if (!hasId) {
+            orderBy.append(", l.id ").append(lastDirection.isAscending() ? "ASC" : "DESC");
+        }
+        return orderBy.toString();
+    }
+
+    /**
+     * The optional list filters. Only non-null filters contribute a predicate and a parameter.
+     */
+    private record LeadFilter(LeadStatus status, Long clinicId, LocalDateTime startDate, LocalDateTime endDate) {
+
+        String where() {
+            return and(null);
+        }
+
+        /**
+         * Renders the WHERE clause for the supplied filters plus an optional extra predicate.
+         */
+        String and(String extraPredicate) {
+            List<String> predicates = new ArrayList<>(5);
+            if (status != null) {
+                predicates.add("l.status = :status");
+            }
+            if (clinicId != null) {
+                // Compares the foreign key column directly, without depending on the clinic join
+                predicates.add("l.clinic.id = :clinicId");
+            }
+            if (startDate != null) {
+                predicates.add("l.createdAt >= :startDate");
+            }
+            if (endDate != null) {
+                predicates.add("l.createdAt <= :endDate");
+            }
+            if (extraPredicate != null) {
+                predicates.add(extraPredicate);
+            }
+            return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+        }
+
+        void bind(TypedQuery<?> query) {
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+            if (clinicId != null) {
+                query.setParameter("clinicId", clinicId);
+            }
+            if (startDate != null) {
+                query.setParameter("startDate", startDate);
+            }
+            if (endDate != null) {
+                query.setParameter("endDate", endDate);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.kiwipay.kiwipay_loan_backend.repository;
+
+import com.kiwipay.kiwipay_loan_backend.entity.Lead;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDBC repository for the lead_daily_stats summary table.
+ * Writes are signed deltas upserted in the caller's transaction; reads aggregate the
+ * summary rows with GROUPING SETS in a single query.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeadStatsRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO lead_daily_stats (day, clinic_id, medical_specialty_id, status, lead_count, treatment_cost_sum) " +
+            "VALUES (:day, :clinicId, :medicalSpecialtyId, :status, :count, :treatmentCost) " +
+            "ON CONFLICT (day, clinic_id, medical_specialty_id, status) DO UPDATE SET " +
+            "lead_count = lead_daily_stats.lead_count + EXCLUDED.lead_count, " +
+            "treatment_cost_sum = lead_daily_stats.treatment_cost_sum + EXCLUDED.treatment_cost_sum";
+
+    private static final String SUMMARY_SQL =
+            "SELECT GROUPING(status) AS g_status, GROUPING(clinic_id) AS g_clinic, " +
+            "GROUPING(medical_specialty_id) AS g_specialty, GROUPING(day) AS g_day, " +
+            "status, clinic_id, medical_specialty_id, day, " +
+            "SUM(lead_count) AS lead_count, SUM(treatment_cost_sum) AS treatment_cost_sum " +
+            "FROM lead_daily_stats " +
+            "WHERE day BETWEEN :startDate AND :endDate%s " +
+            "GROUP BY GROUPING SETS ((status), (clinic_id), (medical_specialty_id), (day), ()) " +
+            "HAVING SUM(lead_count) <> 0 OR GROUPING(status, clinic_id, medical_specialty_id, day) = 15";
+
+    // Keys are upserted in a fixed order so concurrent transactions lock summary rows consistently
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::day)
+            .thenComparing(Key::clinicId)
+            .thenComparing(Key::medicalSpecialtyId)
+            .thenComparing(Key::status);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Summary row identity: creation day, clinic, specialty and current status.
+     */
+    public record Key(LocalDate day, Long clinicId, Long medicalSpecialtyId, LeadStatus status) {
+
+        public static Key of(Lead lead) {
+            return new Key(lead.getCreatedAt().toLocalDate(),
+                    lead.getClinic().getId(),
+                    lead.getMedicalSpecialty().getId(),
+                    lead.getStatus());
+        }
+    }
+
+    /**
+     * One aggregated row; exactly one of the dimensions is set, or none for the grand total.
+     */
+    public record Row(LeadStatus status, Long clinicId, Long medicalSpecialtyId, LocalDate day,
+                      long count, BigDecimal treatmentCost) {
+
+        public boolean isTotal() {
+            return status == null && clinicId == null && medicalSpecialtyId == null && day == null;
+        }
+    }
+
+    /**
+     * Adds the given leads to their summary rows, one upsert per distinct key.
+     */
+    public void addAll(List<Lead> leads) {
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (Lead lead : leads) {
+            deltas.computeIfAbsent(Key.of(lead), key -> new Delta()).add(1, lead.getTreatmentCost());
+        }
+        upsert(deltas);
+    }
+
+    /**
+     * Moves one lead from its previous summary row to its current one.
+     * A no-op when neither the key nor the treatment cost changed.
+     */
+    public void move(Key from, BigDecimal fromTreatmentCost, Key to, BigDecimal toTreatmentCost) {
+        if (from.equals(to) && compare(fromTreatmentCost, toTreatmentCost) == 0) {
+            return;
+        }
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        deltas.computeIfAbsent(from, key -> new Delta()).add(-1, negate(fromTreatmentCost));
+        deltas.computeIfAbsent(to, key -> new Delta()).add(1, toTreatmentCost);
+        upsert(deltas);
+    }
+
+    /**
+     * Aggregates the summary by status, clinic, specialty and day, plus the grand total.
+     */
+    public List<Row> summarize(LocalDate startDate, LocalDate endDate, Long clinicId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate)
+                .addValue("clinicId", clinicId);
+
+        // Same approach as LeadRepositoryImpl: the clinic predicate is only rendered when filtering
+        String sql = SUMMARY_SQL.formatted(clinicId != null ? " AND clinic_id = :clinicId" : "");
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new Row(
+                rs.getInt("g_status") == 0 ? LeadStatus.valueOf(rs.getString("status")) : null,
+                rs.getInt("g_clinic") == 0 ? rs.getLong("clinic_id") : null,
+                rs.getInt("g_specialty") == 0 ? rs.getLong("medical_specialty_id") : null,
+                rs.getInt("g_day") == 0 ? rs.getObject("day", LocalDate.class) : null,
+                rs.getLong("lead_count"),
+                rs.getBigDecimal("treatment_cost_sum") != null ? rs.getBigDecimal("treatment_cost_sum") : BigDecimal.ZERO));
+    }
+
+    private void upsert(Map<Key, Delta> deltas) {
+        List<SqlParameterSource> batchArgs = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> {
+            if (delta.count != 0 || delta.treatmentCost.signum() != 0) {
+                batchArgs.add(new MapSqlParameterSource()
+                        .addValue("day", key.day())
+                        .addValue("clinicId", key.clinicId())
+                        .addValue("medicalSpecialtyId", key.medicalSpecialtyId())
+                        .addValue("status", key.status().name())
+                        .addValue("count", delta.count)
+                        .addValue("treatmentCost", delta.treatmentCost));
+            }
+        });
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    private static int compare(BigDecimal a, BigDecimal b) {
+        return (a == null ? BigDecimal.ZERO : a).compareTo(b == null ? BigDecimal.ZERO : b);
+    }
+
+    private static BigDecimal negate(BigDecimal value) {
+        return value == null ? null : value.negate();
+    }
+
+    private static final class Delta {
+        private long count;
+        private BigDecimal treatmentCost = BigDecimal.ZERO;
+
+        void add(long count, BigDecimal treatmentCost) {
+            this.count += count;
+            if (treatmentCost != null) {
+                this.treatmentCost = this.treatmentCost.add(treatmentCost);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.kiwipay.kiwipay_loan_backend.repository;
+
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC repository for the append-only lead_status_events table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeadStatusEventRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO lead_status_events (lead_id, from_status, to_status, changed_at, changed_by) " +
+            "VALUES (:leadId, :fromStatus, :toStatus, :changedAt, :changedBy)";
+
+    private static final String TIMELINE_SQL =
+            "SELECT from_status, to_status, changed_at, changed_by, " +
+            "LEAD(changed_at) OVER (ORDER BY changed_at, id) AS left_at " +
+            "FROM lead_status_events " +
+            "WHERE lead_id = :leadId " +
+            "ORDER BY changed_at, id";
+
+    // Time in stage = gap to the lead's next event; stays still open at query time are not counted
+    private static final String STAGE_DURATIONS_SQL =
+            "SELECT e.to_status AS status, COUNT(*) AS stays, " +
+            "AVG(s.seconds) AS avg_seconds, " +
+            "percentile_cont(ARRAY[0.5, 0.9, 0.95, 0.99]) WITHIN GROUP (ORDER BY s.seconds) AS percentiles " +
+            "FROM lead_status_events e " +
+            "JOIN LATERAL (SELECT EXTRACT(EPOCH FROM (n.changed_at - e.changed_at))::double precision AS seconds " +
+            "              FROM lead_status_events n " +
+            "              WHERE n.lead_id = e.lead_id AND (n.changed_at, n.id) > (e.changed_at, e.id) " +
+            "              ORDER BY n.changed_at, n.id " +
+            "              LIMIT 1) s ON true " +
+            "WHERE e.changed_at >= :startDate AND e.changed_at < :endDate " +
+            "GROUP BY e.to_status";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * A status transition. fromStatus is null for the creation event.
+     */
+    public record Event(long leadId, LeadStatus fromStatus, LeadStatus toStatus,
+                        LocalDateTime changedAt, String changedBy) {
+    }
+
+    /**
+     * An event of a lead timeline; leftAt is null while the lead is still in toStatus.
+     */
+    public record TimelineEntry(LeadStatus fromStatus, LeadStatus toStatus, LocalDateTime changedAt,
+                                String changedBy, LocalDateTime leftAt) {
+    }
+
+    /**
+     * Completed stays in one status and their duration percentiles, in seconds.
+     */
+    public record StageDuration(LeadStatus status, long stays, double averageSeconds,
+                                double p50Seconds, double p90Seconds, double p95Seconds, double p99Seconds) {
+    }
+
+    public void insertAll(List<Event> events) {
+        SqlParameterSource[] batchArgs = events.stream()
+                .map(event -> new MapSqlParameterSource()
+                        .addValue("leadId", event.leadId())
+                        .addValue("fromStatus", event.fromStatus() != null ? event.fromStatus().name() : null)
+                        .addValue("toStatus", event.toStatus().name())
+                        .addValue("changedAt", event.changedAt())
+                        .addValue("changedBy", event.changedBy()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+
+    public List<TimelineEntry> findTimeline(long leadId) {
+        return jdbcTemplate.query(TIMELINE_SQL, Map.of("leadId", leadId), (rs, rowNum) -> new TimelineEntry(
+                rs.getString("from_status") != null ? LeadStatus.valueOf(rs.getString("from_status")) : null,
+                LeadStatus.valueOf(rs.getString("to_status")),
+                rs.getObject("changed_at", LocalDateTime.class),
+                rs.getString("changed_by"),
+                rs.getObject("left_at", LocalDateTime.class)));
+    }
+
+    /**
+     * Duration percentiles of the stays that started in [startDate, endDate), per status.
+     */
+    public List<StageDuration> findStageDurations(LocalDateTime startDate, LocalDateTime endDate) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate);
+
+        return jdbcTemplate.query(STAGE_DURATIONS_SQL, params, (rs, rowNum) -> {
+            Double[] percentiles = (Double[]) rs.getArray("percentiles").getArray();
+            return new StageDuration(
+                    LeadStatus.valueOf(rs.getString("status")),
+                    rs.getLong("stays"),
+                    rs.getDouble("avg_seconds"),
+                    percentiles[0], percentiles[1], percentiles[2], percentiles[3]);
+        });
+    }
+}
@@ -2,8 +2,11 @@ package com.kiwipay.kiwipay_loan_backend.repository;
 
 import com.kiwipay.kiwipay_loan_backend.entity.MedicalSpecialty;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,4 +35,10 @@ public interface MedicalSpecialtyRepository extends JpaRepository<MedicalSpecial
      * Find medical specialty by exact name.
      */
     Optional<MedicalSpecialty> findByName(String name);
+    
+    /**
+     * Find which of the given names already exist, in a single query.
+     */
+    @Query("SELECT ms.name FROM MedicalSpecialty ms WHERE ms.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
 } 
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.kiwipay.kiwipay_loan_backend.config.CacheConfig.CLINICS_CACHE;
+import static com.kiwipay.kiwipay_loan_backend.config.CacheConfig.LEADS_CACHE;
+import static com.kiwipay.kiwipay_loan_backend.config.CacheConfig.SPECIALTIES_CACHE;
+
+/**
+ * Evicts the local caches when any node commits a write to clinics, medical_specialties or leads.
+ * Triggers (see V12__create_cache_invalidation_triggers.sql) NOTIFY on every write and this node
+ * LISTENs on a dedicated connection outside the Hikari pool, so evictions arrive within
+ * milliseconds of the commit without an external broker. Notifications sent while the connection
+ * is down are lost, so every (re)connect clears all the caches before listening again.
+ *
+ * An eviction alone does not close the race with reads: a getLeadById that loaded the row before
+ * the commit can put the old value back after the eviction ran. Every eviction is therefore
+ * repeated after re-evict-delay, which must exceed the slowest cache-filling read (a single-row
+ * lookup). A read slower than that can still re-cache a stale value until expireAfterWrite, so
+ * the TTL in spring.cache.caffeine.spec bounds the staleness in the worst case.
+ */
+@Component
+@ConditionalOnProperty(name = "kiwipay.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationListener {
+
+    static final String CHANNEL = "kiwipay_cache_invalidation";
+
+    private final JdbcConnectionDetails connectionDetails;
+    private final CacheManager cacheManager;
+
+    @Value("${kiwipay.cache.invalidation.poll-timeout:PT10S}")
+    private Duration pollTimeout;
+
+    @Value("${kiwipay.cache.invalidation.reconnect-delay:PT5S}")
+    private Duration reconnectDelay;
+
+    @Value("${kiwipay.cache.invalidation.re-evict-delay:PT2S}")
+    private Duration reEvictDelay;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listenerThread;
+    private ScheduledExecutorService reEvictor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        reEvictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-re-evict");
+            thread.setDaemon(true);
+            return thread;
+        });
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        closeConnection();
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        if (reEvictor != null) {
+            reEvictor.shutdownNow();
+        }
+    }
+
+    /**
+     * Applies one notification payload now and again after re-evict-delay.
+     */
+    void onNotification(String payload) {
+        apply(payload);
+        if (reEvictor != null && reEvictDelay.isPositive()) {
+            reEvictor.schedule(() -> apply(payload), reEvictDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Applies one notification payload: "table:*" or "table:id,id,...".
+     */
+    private void apply(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed cache invalidation: {}", payload);
+            return;
+        }
+        String table = payload.substring(0, separator);
+        String keys = payload.substring(separator + 1);
+
+        // Cached lead details embed clinic and specialty names, so catalog writes drop them too
+        switch (table) {
+            case "clinics" -> {
+                clearCache(CLINICS_CACHE);
+                clearCache(LEADS_CACHE);
+            }
+            case "medical_specialties" -> {
+                clearCache(SPECIALTIES_CACHE);
+                clearCache(LEADS_CACHE);
+            }
+            case "leads" -> evictLeads(keys);
+            default -> log.warn("Ignoring cache invalidation for unknown table: {}", table);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection listenConnection = DriverManager.getConnection(
+                    connectionDetails.getJdbcUrl(), connectionDetails.getUsername(), connectionDetails.getPassword())) {
+                connection = listenConnection;
+                try (Statement statement = listenConnection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything written while we were not listening may be cached stale
+                clearAll();
+                log.info("Listening for cache invalidations on channel {}", CHANNEL);
+
+                PGConnection pgConnection = listenConnection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications == null || notifications.length == 0) {
+                        // Idle: a round trip detects a dead connection
+                        try (Statement statement = listenConnection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        onNotification(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected, retrying in {}: {}", reconnectDelay, e.getMessage());
+                sleep(reconnectDelay);
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void evictLeads(String keys) {
+        Cache cache = cacheManager.getCache(LEADS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        if ("*".equals(keys)) {
+            cache.clear();
+            return;
+        }
+        for (String key : keys.split(",")) {
+            try {
+                cache.evict(Long.valueOf(key));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed lead id in cache invalidation: {}", key);
+            }
+        }
+    }
+
+    private void clearAll() {
+        clearCache(CLINICS_CACHE);
+        clearCache(SPECIALTIES_CACHE);
+        clearCache(LEADS_CACHE);
+    }
+
+    private void clearCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Error closing cache invalidation connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import com.kiwipay.kiwipay_loan_backend.entity.Clinic;
+import com.kiwipay.kiwipay_loan_backend.entity.MedicalSpecialty;
+
+/**
+ * Immutable view of a clinic or medical specialty, as cached for the lead write path.
+ * Entities are never cached: a cached entity belongs to the persistence context that loaded it.
+ */
+public record CatalogEntry(Long id, String name, boolean active) {
+
+    public static CatalogEntry of(Clinic clinic) {
+        return new CatalogEntry(clinic.getId(), clinic.getName(), Boolean.TRUE.equals(clinic.getActive()));
+    }
+
+    public static CatalogEntry of(MedicalSpecialty medicalSpecialty) {
+        return new CatalogEntry(medicalSpecialty.getId(), medicalSpecialty.getName(),
+                Boolean.TRUE.equals(medicalSpecialty.getActive()));
+    }
+}
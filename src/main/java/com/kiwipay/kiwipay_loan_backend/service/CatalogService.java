@@ -0,0 +1,146 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiwipay.kiwipay_loan_backend.entity.Clinic;
+import com.kiwipay.kiwipay_loan_backend.entity.MedicalSpecialty;
+import com.kiwipay.kiwipay_loan_backend.repository.ClinicRepository;
+import com.kiwipay.kiwipay_loan_backend.repository.MedicalSpecialtyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static com.kiwipay.kiwipay_loan_backend.config.CacheConfig.CLINICS_CACHE;
+import static com.kiwipay.kiwipay_loan_backend.config.CacheConfig.SPECIALTIES_CACHE;
+
+/**
+ * Read-through cache over the clinic and medical specialty catalogs.
+ * Serves both the dropdown endpoints and the validation lookups of the lead write path.
+ * Catalog lists are cached as versioned snapshots so conditional requests never reach the database.
+ * Single lookups are cached as immutable {@link CatalogEntry} values; leads are linked to the catalog
+ * through {@link #clinicReference} and {@link #medicalSpecialtyReference}, which need no query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class CatalogService {
+
+    private final ClinicRepository clinicRepository;
+    private final MedicalSpecialtyRepository medicalSpecialtyRepository;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Get a snapshot of all active clinics.
+     */
+    @Cacheable(cacheNames = CLINICS_CACHE, key = "'active'")
+    public CatalogSnapshot<Clinic> getActiveClinics() {
+        log.debug("Loading active clinics from database");
+        return snapshot(clinicRepository.findByActiveTrue());
+    }
+
+    /**
+     * Find a clinic by ID.
+     */
+    @Cacheable(cacheNames = CLINICS_CACHE, key = "#id")
+    public Optional<CatalogEntry> findClinic(Long id) {
+        return clinicRepository.findById(id).map(CatalogEntry::of);
+    }
+
+    /**
+     * Reference to a clinic in the caller's persistence context, for associations; no query is issued.
+     */
+    public Clinic clinicReference(Long id) {
+        return clinicRepository.getReferenceById(id);
+    }
+
+    /**
+     * Get a snapshot of all active medical specialties.
+     */
+    @Cacheable(cacheNames = SPECIALTIES_CACHE, key = "'active'")
+    public CatalogSnapshot<MedicalSpecialty> getActiveMedicalSpecialties() {
+        log.debug("Loading active medical specialties from database");
+        return snapshot(medicalSpecialtyRepository.findByActiveTrue());
+    }
+
+    /**
+     * Get a snapshot of all active medical specialties of a category.
+     */
+    @Cacheable(cacheNames = SPECIALTIES_CACHE, key = "'category:' + #category")
+    public CatalogSnapshot<MedicalSpecialty> getActiveMedicalSpecialtiesByCategory(String category) {
+        log.debug("Loading active medical specialties of category {} from database", category);
+        return snapshot(medicalSpecialtyRepository.findByCategoryAndActiveTrue(category));
+    }
+
+    /**
+     * Find a medical specialty by ID.
+     */
+    @Cacheable(cacheNames = SPECIALTIES_CACHE, key = "#id")
+    public Optional<CatalogEntry> findMedicalSpecialty(Long id) {
+        return medicalSpecialtyRepository.findById(id).map(CatalogEntry::of);
+    }
+
+    /**
+     * Reference to a medical specialty in the caller's persistence context, for associations; no query is issued.
+     */
+    public MedicalSpecialty medicalSpecialtyReference(Long id) {
+        return medicalSpecialtyRepository.getReferenceById(id);
+    }
+
+    /**
+     * Evicts both catalog caches after a catalog write.
+     * When called inside a transaction the eviction is deferred until commit,
+     * so concurrent readers cannot re-cache the data that is about to change.
+     */
+    public void evictCatalogs() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clearCatalogCaches();
+                }
+            });
+        } else {
+            clearCatalogCaches();
+        }
+    }
+
+    /**
+     * Builds a snapshot whose ETag is a SHA-256 hash of the JSON the endpoint would return.
+     */
+    private <T> CatalogSnapshot<T> snapshot(List<T> items) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(items);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return new CatalogSnapshot<>(List.copyOf(items), HexFormat.of().formatHex(digest, 0, 16));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Error calculando la versión del catálogo", e);
+        }
+    }
+
+    private void clearCatalogCaches() {
+        clearCache(CLINICS_CACHE);
+        clearCache(SPECIALTIES_CACHE);
+        log.info("Catalog caches evicted");
+    }
+
+    private void clearCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import java.util.List;
+
+/**
+ * Immutable snapshot of a catalog list together with its content hash.
+ * The hash is computed once when the snapshot is cached and is used as a strong ETag.
+ */
+public record CatalogSnapshot<T>(List<T> items, String etag) {
+}
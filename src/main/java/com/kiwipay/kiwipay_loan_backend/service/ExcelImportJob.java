@@ -0,0 +1,127 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado y progreso de una importación de catálogos desde Excel.
+ * Los contadores se actualizan desde el hilo de importación y se leen desde los hilos HTTP.
+ */
+public class ExcelImportJob {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final String fileName;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Status status = Status.PENDING;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String errorMessage;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsInserted = new AtomicLong();
+    private final AtomicLong rowsSkipped = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+
+    public ExcelImportJob(String id, String fileName) {
+        this.id = id;
+        this.fileName = fileName;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        finishedAt = Instant.now();
+        errorMessage = message;
+        status = Status.FAILED;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void rowsInserted(long count) {
+        rowsInserted.addAndGet(count);
+    }
+
+    void rowsSkipped(long count) {
+        rowsSkipped.addAndGet(count);
+    }
+
+    void rowsFailed(long count) {
+        rowsFailed.addAndGet(count);
+    }
+
+    /**
+     * Filas leídas por segundo desde el inicio del job hasta ahora (o hasta su fin).
+     */
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return rowsRead.get() * 1000.0 / millis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsInserted() {
+        return rowsInserted.get();
+    }
+
+    public long getRowsSkipped() {
+        return rowsSkipped.get();
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.get();
+    }
+}
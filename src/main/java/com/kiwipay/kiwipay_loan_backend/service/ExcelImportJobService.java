@@ -0,0 +1,194 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import com.kiwipay.kiwipay_loan_backend.dto.response.ExcelImportJobResponse;
+import com.kiwipay.kiwipay_loan_backend.exception.BusinessException;
+import com.kiwipay.kiwipay_loan_backend.exception.ResourceNotFoundException;
+import com.kiwipay.kiwipay_loan_backend.repository.ExcelImportJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio que ejecuta importaciones de Excel subidas por los usuarios en segundo plano.
+ * Usa un pool propio y acotado, de modo que una importación larga nunca ocupa un hilo de Tomcat,
+ * y conserva el progreso de cada job durante un tiempo limitado para consultarlo por su ID.
+ *
+ * El progreso vive en memoria en el nodo que ejecuta el job y se vuelca cada progress-interval a
+ * la tabla excel_import_jobs, de la que lee cualquier réplica: consultar un job no requiere
+ * enrutamiento sticky. Si un nodo se detiene, sus jobs dejan de reportar y pasan a FAILED
+ * tras stale-after.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExcelImportJobService {
+
+    private final ExcelPopulateService excelPopulateService;
+    private final ExcelImportJobRepository excelImportJobRepository;
+
+    @Value("${kiwipay.populate.import.pool-size:2}")
+    private int poolSize;
+
+    @Value("${kiwipay.populate.import.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Value("${kiwipay.populate.import.job-retention:24h}")
+    private Duration jobRetention;
+
+    @Value("${kiwipay.populate.import.stale-after:PT5M}")
+    private Duration staleAfter;
+
+    private ThreadPoolTaskExecutor executor;
+
+    // Jobs encolados o en curso en este nodo
+    private final Map<String, ExcelImportJob> activeJobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        // Pool dedicado: no se registra como bean para no reemplazar el executor por defecto de Spring
+        executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("excel-import-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Guarda el archivo subido en disco y encola su importación.
+     *
+     * @param file el archivo .xlsx subido
+     * @return el estado inicial del job, con su ID
+     */
+    public ExcelImportJobResponse startImport(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException("El archivo Excel está vacío");
+        }
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload.xlsx";
+        if (!fileName.toLowerCase().endsWith(".xlsx")) {
+            throw new BusinessException("Solo se admiten archivos .xlsx");
+        }
+
+        Path excelFile = saveToTempFile(file);
+        ExcelImportJob job = new ExcelImportJob(UUID.randomUUID().toString(), fileName);
+        excelImportJobRepository.insert(job);
+        activeJobs.put(job.getId(), job);
+
+        try {
+            executor.execute(() -> runJob(job, excelFile));
+        } catch (TaskRejectedException e) {
+            activeJobs.remove(job.getId());
+            job.fail("Rechazada: hay demasiadas importaciones en curso");
+            excelImportJobRepository.save(job);
+            deleteTempFile(excelFile);
+            throw new BusinessException("Hay demasiadas importaciones en curso, intente más tarde");
+        }
+
+        log.info("Importación {} encolada para el archivo {}", job.getId(), fileName);
+        return toResponse(job);
+    }
+
+    /**
+     * Devuelve el progreso de un job de importación.
+     */
+    public ExcelImportJobResponse getJob(String jobId) {
+        return excelImportJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Importación no encontrada con ID: " + jobId));
+    }
+
+    /**
+     * Vuelca el progreso de los jobs de este nodo; también sirve de latido para los encolados.
+     */
+    @Scheduled(fixedDelayString = "${kiwipay.populate.import.progress-interval:PT2S}")
+    public void flushProgress() {
+        for (ExcelImportJob job : activeJobs.values()) {
+            try {
+                excelImportJobRepository.save(job);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo guardar el progreso de la importación {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Marca como fallidos los jobs cuyo nodo dejó de reportar y elimina los terminados hace más de job-retention.
+     */
+    @Scheduled(fixedDelayString = "${kiwipay.populate.import.purge-interval:PT5M}",
+               initialDelayString = "${kiwipay.populate.import.purge-interval:PT5M}")
+    public void purgeJobs() {
+        Instant now = Instant.now();
+        int failed = excelImportJobRepository.failStale(now.minus(staleAfter),
+                "La importación se interrumpió: el nodo que la ejecutaba dejó de reportar progreso");
+        int purged = excelImportJobRepository.purgeFinished(now.minus(jobRetention));
+        if (failed > 0 || purged > 0) {
+            log.info("Importaciones interrumpidas: {}, eliminadas por antigüedad: {}", failed, purged);
+        }
+    }
+
+    private void runJob(ExcelImportJob job, Path excelFile) {
+        try {
+            excelPopulateService.importExcel(job, excelFile);
+        } finally {
+            deleteTempFile(excelFile);
+            activeJobs.remove(job.getId());
+            excelImportJobRepository.save(job);
+        }
+    }
+
+    private Path saveToTempFile(MultipartFile file) {
+        try {
+            Path tempFile = Files.createTempFile("kiwipay-import-", ".xlsx");
+            file.transferTo(tempFile);
+            return tempFile;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo guardar el archivo subido", e);
+        }
+    }
+
+    private void deleteTempFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}: {}", file, e.getMessage());
+        }
+    }
+
+    private ExcelImportJobResponse toResponse(ExcelImportJob job) {
+        return ExcelImportJobResponse.builder()
+                .jobId(job.getId())
+                .fileName(job.getFileName())
+                .status(job.getStatus())
+                .rowsRead(job.getRowsRead())
+                .rowsInserted(job.getRowsInserted())
+                .rowsSkipped(job.getRowsSkipped())
+                .rowsFailed(job.getRowsFailed())
+                .rowsPerSecond(job.getRowsPerSecond())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .errorMessage(job.getErrorMessage())
+                .build();
+    }
+}
@@ -8,19 +8,34 @@ import com.kiwipay.kiwipay_loan_backend.repository.MedicalSpecialtyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
 
 /**
  * Servicio para poblar la base de datos desde el archivo Excel seed.xlsx
  * Implementa el mismo flujo que el sistema TypeScript original
+ * Lee las hojas en streaming (SAX) e inserta por chunks, con memoria acotada por el tamaño del chunk
+ * y una transacción por chunk
  */
 @Service
 @RequiredArgsConstructor
@@ -29,45 +44,83 @@ public class ExcelPopulateService {
     
     private final ClinicRepository clinicRepository;
     private final MedicalSpecialtyRepository medicalSpecialtyRepository;
+    private final CatalogService catalogService;
+    private final TransactionTemplate transactionTemplate;
     
     // Constantes para el procesamiento del Excel
     private static final String EXCEL_FILE_PATH = "static/seed.xlsx";
     private static final int HEALTH_CENTERS_SHEET_INDEX = 1; // Hoja 2 (índice 1)
     private static final int SPECIALTIES_SHEET_INDEX = 2;    // Hoja 3 (índice 2)
     private static final int DATA_START_ROW = 2;             // Fila 3 (índice 2)
+    private static final int CHUNK_SIZE = 500;               // Filas por lote de inserción
     
     /**
-     * Método principal para poblar la base de datos desde Excel
+     * Método principal para poblar la base de datos desde el Excel seed del classpath
      */
-    @Transactional
     public void populateFromExcel() {
         log.info("Iniciando proceso de populate desde Excel: {}", EXCEL_FILE_PATH);
         
+        Path excelFile = null;
         try {
-            // 1. Leer archivo Excel
-            Workbook workbook = loadExcelFile();
+            // Copiar el Excel a un archivo temporal: OPCPackage lee el zip desde disco sin cargarlo en memoria
+            excelFile = copyExcelToTempFile();
+            
+            ExcelImportJob job = new ExcelImportJob(UUID.randomUUID().toString(), EXCEL_FILE_PATH);
+            importExcel(job, excelFile);
+            if (job.getStatus() == ExcelImportJob.Status.FAILED) {
+                throw new RuntimeException(job.getErrorMessage());
+            }
+            
+        } catch (Exception e) {
+            log.error("Error durante el proceso de populate: {}", e.getMessage(), e);
+            throw new RuntimeException("Error poblando la base de datos desde Excel", e);
+        } finally {
+            deleteTempFile(excelFile);
+        }
+    }
+    
+    /**
+     * Importa clínicas y especialidades de un archivo .xlsx en disco, registrando el progreso en el job.
+     * Cada chunk se confirma en su propia transacción, así que una importación grande nunca mantiene
+     * una transacción larga; si un chunk falla, sus filas se cuentan como fallidas y se continúa.
+     */
+    public void importExcel(ExcelImportJob job, Path excelFile) {
+        job.start();
+        log.info("Importación {} iniciada: {}", job.getId(), job.getFileName());
+        
+        try (OPCPackage excelPackage = OPCPackage.open(excelFile.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(excelPackage);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(excelPackage);
             
-            // 2. Procesar centros de salud (Hoja 2)
-            int insertedClinics = processHealthCenters(workbook);
+            // 1. Procesar centros de salud (Hoja 2)
+            int insertedClinics = processHealthCenters(reader, sharedStrings, job);
             
-            // 3. Procesar especialidades (Hoja 3)
-            int insertedSpecialties = processSpecialties(workbook);
+            // 2. Procesar especialidades (Hoja 3)
+            int insertedSpecialties = processSpecialties(reader, sharedStrings, job);
             
-            // 4. Mostrar resumen
+            // 3. Mostrar resumen
             showSummary(insertedClinics, insertedSpecialties);
-            
-            workbook.close();
+            job.complete();
             
         } catch (Exception e) {
-            log.error("Error durante el proceso de populate: {}", e.getMessage(), e);
-            throw new RuntimeException("Error poblando la base de datos desde Excel", e);
+            log.error("Error en la importación {}: {}", job.getId(), e.getMessage(), e);
+            job.fail(e.getMessage());
+        } finally {
+            // 4. Invalidar la caché de catálogos: los chunks ya confirmados son visibles aunque el job falle
+            if (job.getRowsInserted() > 0) {
+                catalogService.evictCatalogs();
+            }
         }
+        
+        log.info("Importación {} finalizada con estado {} - leídas: {}, insertadas: {}, omitidas: {}, fallidas: {}",
+                job.getId(), job.getStatus(), job.getRowsRead(), job.getRowsInserted(),
+                job.getRowsSkipped(), job.getRowsFailed());
     }
     
     /**
-     * Carga el archivo Excel desde el classpath
+     * Copia el archivo Excel del classpath a un archivo temporal
      */
-    private Workbook loadExcelFile() throws IOException {
+    private Path copyExcelToTempFile() throws IOException {
         log.info("📂 Cargando archivo Excel: {}", EXCEL_FILE_PATH);
         
         ClassPathResource resource = new ClassPathResource(EXCEL_FILE_PATH);
@@ -75,123 +128,187 @@ public class ExcelPopulateService {
             throw new RuntimeException("Archivo Excel no encontrado: " + EXCEL_FILE_PATH);
         }
         
+        Path tempFile = Files.createTempFile("kiwipay-populate-", ".xlsx");
         try (InputStream inputStream = resource.getInputStream()) {
-            Workbook workbook = new XSSFWorkbook(inputStream);
-            log.info("Excel cargado exitosamente. Hojas encontradas: {}", workbook.getNumberOfSheets());
-            
-            // Mostrar nombres de las hojas
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                log.info("   📋 Hoja {}: {}", i + 1, workbook.getSheetName(i));
-            }
-            
-            return workbook;
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return tempFile;
+    }
+    
+    private void deleteTempFile(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}: {}", file, e.getMessage());
         }
     }
     
     /**
      * Procesa la hoja de centros de salud (Hoja 2)
      */
-    private int processHealthCenters(Workbook workbook) {
+    private int processHealthCenters(XSSFReader reader,
+                                     ReadOnlySharedStringsTable sharedStrings,
+                                     ExcelImportJob job) throws Exception {
         log.info("🏥 Procesando centros de salud...");
         
-        Sheet sheet = workbook.getSheetAt(HEALTH_CENTERS_SHEET_INDEX);
-        int insertedCount = 0;
+        // Clínicas pendientes del chunk actual, indexadas por el nombre con el que se guardarán
+        Map<String, Clinic> chunk = new LinkedHashMap<>();
+        int[] insertedCount = {0};
         
-        for (int rowIndex = DATA_START_ROW; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-            Row row = sheet.getRow(rowIndex);
-            if (row == null || isEmptyRow(row)) {
-                continue;
+        readSheet(reader, sharedStrings, HEALTH_CENTERS_SHEET_INDEX, (rowIndex, cells) -> {
+            job.rowRead();
+            // Columnas B-I (índices 1-8): name, sede, país, región, provincia, distrito, teléfono, dirección
+            String name = cells.getOrDefault(1, "");
+            String address = cells.getOrDefault(8, "");
+            
+            if (isBlank(name)) {
+                job.rowsSkipped(1);
+                return;
             }
             
-            try {
-                // Columnas B-I (índices 1-8): name, sede, país, región, provincia, distrito, teléfono, dirección
-                String name = getCellValueAsString(row.getCell(1));
-                String address = getCellValueAsString(row.getCell(8));
-                
-                if (isBlank(name)) {
-                    continue;
-                }
-                
-                // Verificar si ya existe
-                Optional<Clinic> existingClinic = clinicRepository.findByName(name.trim());
-                if (existingClinic.isPresent()) {
-                    log.debug("Clínica ya existe: {}", name);
-                    continue;
-                }
-                
-                // Crear nueva clínica
-                Clinic clinic = Clinic.builder()
-                        .name(capitalizeWords(name.trim()))
-                        .address(capitalizeWords(address.trim()))
-                        .active(true)
-                        .build();
-                
-                Clinic savedClinic = clinicRepository.save(clinic);
-                insertedCount++;
-                
-                log.info("Clínica insertada: {} (ID: {})", savedClinic.getName(), savedClinic.getId());
-                
-            } catch (Exception e) {
-                log.warn("Error procesando fila {} de centros de salud: {}", rowIndex + 1, e.getMessage());
+            Clinic clinic = Clinic.builder()
+                    .name(capitalizeWords(name.trim()))
+                    .address(capitalizeWords(address.trim()))
+                    .active(true)
+                    .build();
+            if (chunk.putIfAbsent(clinic.getName(), clinic) != null) {
+                job.rowsSkipped(1);
             }
-        }
+            
+            if (chunk.size() >= CHUNK_SIZE) {
+                insertedCount[0] += saveChunk(chunk, job, this::saveNewClinics);
+            }
+        });
+        insertedCount[0] += saveChunk(chunk, job, this::saveNewClinics);
+        
+        log.info("Procesados {} centros de salud", insertedCount[0]);
+        return insertedCount[0];
+    }
+    
+    /**
+     * Inserta en lote las clínicas del chunk que todavía no existen en BD
+     */
+    private int saveNewClinics(Map<String, Clinic> chunk) {
+        // Verificar existentes con una sola consulta; incluye las insertadas en chunks anteriores
+        Set<String> existingNames = new HashSet<>(clinicRepository.findExistingNames(chunk.keySet()));
+        List<Clinic> newClinics = chunk.values().stream()
+                .filter(clinic -> !existingNames.contains(clinic.getName()))
+                .toList();
         
-        log.info("Procesados {} centros de salud", insertedCount);
-        return insertedCount;
+        clinicRepository.saveAll(newClinics);
+        return newClinics.size();
     }
     
     /**
      * Procesa la hoja de especialidades (Hoja 3)
      */
-    private int processSpecialties(Workbook workbook) {
+    private int processSpecialties(XSSFReader reader,
+                                   ReadOnlySharedStringsTable sharedStrings,
+                                   ExcelImportJob job) throws Exception {
         log.info("🩺 Procesando especialidades...");
         
-        Sheet sheet = workbook.getSheetAt(SPECIALTIES_SHEET_INDEX);
-        int insertedCount = 0;
+        // Especialidades pendientes del chunk actual, indexadas por el nombre con el que se guardarán
+        Map<String, MedicalSpecialty> chunk = new LinkedHashMap<>();
+        int[] insertedCount = {0};
         
-        for (int rowIndex = DATA_START_ROW; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-            Row row = sheet.getRow(rowIndex);
-            if (row == null || isEmptyRow(row)) {
-                continue;
+        readSheet(reader, sharedStrings, SPECIALTIES_SHEET_INDEX, (rowIndex, cells) -> {
+            job.rowRead();
+            // Columnas B-D (índices 1-3): selector, categoría, especialidad
+            String category = cells.getOrDefault(2, "");
+            String specialty = cells.getOrDefault(3, "");
+            
+            if (isBlank(category) || isBlank(specialty)) {
+                job.rowsSkipped(1);
+                return;
             }
             
-            try {
-                // Columnas B-D (índices 1-3): selector, categoría, especialidad
-                String category = getCellValueAsString(row.getCell(2));
-                String specialty = getCellValueAsString(row.getCell(3));
-                
-                if (isBlank(category) || isBlank(specialty)) {
-                    continue;
-                }
-                
-                // Verificar si ya existe
-                Optional<MedicalSpecialty> existingSpecialty = 
-                        medicalSpecialtyRepository.findByName(specialty.trim());
-                if (existingSpecialty.isPresent()) {
-                    log.debug("Especialidad ya existe: {}", specialty);
+            MedicalSpecialty medicalSpecialty = MedicalSpecialty.builder()
+                    .name(capitalizeWords(specialty.trim()))
+                    .category(capitalizeWords(category.trim()))
+                    .active(true)
+                    .build();
+            if (chunk.putIfAbsent(medicalSpecialty.getName(), medicalSpecialty) != null) {
+                job.rowsSkipped(1);
+            }
+            
+            if (chunk.size() >= CHUNK_SIZE) {
+                insertedCount[0] += saveChunk(chunk, job, this::saveNewSpecialties);
+            }
+        });
+        insertedCount[0] += saveChunk(chunk, job, this::saveNewSpecialties);
+        
+        log.info("Procesadas {} especialidades", insertedCount[0]);
+        return insertedCount[0];
+    }
+    
+    /**
+     * Inserta en lote las especialidades del chunk que todavía no existen en BD
+     */
+    private int saveNewSpecialties(Map<String, MedicalSpecialty> chunk) {
+        // Verificar existentes con una sola consulta; incluye las insertadas en chunks anteriores
+        Set<String> existingNames = new HashSet<>(medicalSpecialtyRepository.findExistingNames(chunk.keySet()));
+        List<MedicalSpecialty> newSpecialties = chunk.values().stream()
+                .filter(specialty -> !existingNames.contains(specialty.getName()))
+                .toList();
+        
+        medicalSpecialtyRepository.saveAll(newSpecialties);
+        return newSpecialties.size();
+    }
+    
+    /**
+     * Confirma un chunk en su propia transacción y actualiza el progreso del job.
+     * El contexto de persistencia termina con la transacción, así que la memoria queda acotada por el chunk.
+     */
+    private <T> int saveChunk(Map<String, T> chunk, ExcelImportJob job, ToIntFunction<Map<String, T>> saver) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        
+        int inserted = 0;
+        try {
+            inserted = transactionTemplate.execute(status -> saver.applyAsInt(chunk));
+            job.rowsInserted(inserted);
+            job.rowsSkipped(chunk.size() - inserted);
+            log.debug("Chunk de la importación {}: {} filas, {} insertadas", job.getId(), chunk.size(), inserted);
+        } catch (RuntimeException e) {
+            job.rowsFailed(chunk.size());
+            log.warn("Error guardando un chunk de {} filas en la importación {}: {}",
+                    chunk.size(), job.getId(), e.getMessage());
+        }
+        
+        chunk.clear();
+        return inserted;
+    }
+    
+    /**
+     * Recorre una hoja fila a fila con el parser SAX de POI, sin construir el DOM del libro
+     */
+    private void readSheet(XSSFReader reader,
+                           ReadOnlySharedStringsTable sharedStrings,
+                           int sheetIndex,
+                           BiConsumer<Integer, Map<Integer, String>> rowConsumer) throws Exception {
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        int index = 0;
+        while (sheets.hasNext()) {
+            try (InputStream sheet = sheets.next()) {
+                if (index++ != sheetIndex) {
                     continue;
                 }
+                log.info("   📋 Hoja {}: {}", sheetIndex + 1, sheets.getSheetName());
                 
-                // Crear nueva especialidad
-                MedicalSpecialty medicalSpecialty = MedicalSpecialty.builder()
-                        .name(capitalizeWords(specialty.trim()))
-                        .category(capitalizeWords(category.trim()))
-                        .active(true)
-                        .build();
-                
-                MedicalSpecialty savedSpecialty = medicalSpecialtyRepository.save(medicalSpecialty);
-                insertedCount++;
-                
-                log.info("Especialidad insertada: {} - {} (ID: {})", 
-                        savedSpecialty.getCategory(), savedSpecialty.getName(), savedSpecialty.getId());
-                
-            } catch (Exception e) {
-                log.warn("Error procesando fila {} de especialidades: {}", rowIndex + 1, e.getMessage());
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        reader.getStylesTable(), null, sharedStrings,
+                        new ExcelSheetRowReader(DATA_START_ROW, rowConsumer),
+                        new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+                return;
             }
         }
-        
-        log.info("Procesadas {} especialidades", insertedCount);
-        return insertedCount;
+        throw new IllegalStateException("El Excel no contiene la hoja " + (sheetIndex + 1));
     }
     
     /**
@@ -213,50 +330,12 @@ public class ExcelPopulateService {
     
     // Métodos utilitarios
     
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return "";
-        }
-        
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    // Convertir número a string sin notación científica
-                    double numericValue = cell.getNumericCellValue();
-                    if (numericValue == (long) numericValue) {
-                        return String.valueOf((long) numericValue);
-                    } else {
-                        return String.valueOf(numericValue);
-                    }
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return "";
-        }
-    }
-    
-    private boolean isEmptyRow(Row row) {
-        for (int i = 0; i < row.getLastCellNum(); i++) {
-            Cell cell = row.getCell(i);
-            if (cell != null && !isBlank(getCellValueAsString(cell))) {
-                return false;
-            }
-        }
-        return true;
-    }
-    
-    private boolean isBlank(String str) {
+    private static boolean isBlank(String str) {
         return str == null || str.trim().isEmpty();
     }
     
-    private String capitalizeWords(String str) {
+    // Package-private for the JMH benchmarks
+    static String capitalizeWords(String str) {
         if (isBlank(str)) {
             return str;
         }
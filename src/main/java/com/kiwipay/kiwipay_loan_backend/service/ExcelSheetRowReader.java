@@ -0,0 +1,55 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Receptor de eventos SAX de una hoja Excel.
+ * Acumula únicamente las celdas de la fila actual y la entrega al consumidor al cerrarla,
+ * por lo que la memoria usada no depende del tamaño de la hoja.
+ */
+class ExcelSheetRowReader implements SheetContentsHandler {
+
+    private final int firstDataRow;
+    private final BiConsumer<Integer, Map<Integer, String>> rowConsumer;
+    private final Map<Integer, String> currentRow = new HashMap<>();
+
+    /**
+     * @param firstDataRow índice (base 0) de la primera fila con datos; las anteriores se ignoran
+     * @param rowConsumer recibe el índice de la fila y sus celdas no vacías indexadas por columna
+     */
+    ExcelSheetRowReader(int firstDataRow, BiConsumer<Integer, Map<Integer, String>> rowConsumer) {
+        this.firstDataRow = firstDataRow;
+        this.rowConsumer = rowConsumer;
+    }
+
+    @Override
+    public void startRow(int rowNum) {
+        currentRow.clear();
+    }
+
+    @Override
+    public void endRow(int rowNum) {
+        if (rowNum >= firstDataRow && !currentRow.isEmpty()) {
+            rowConsumer.accept(rowNum, Map.copyOf(currentRow));
+        }
+    }
+
+    @Override
+    public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+        if (cellReference == null || formattedValue == null || formattedValue.isBlank()) {
+            return;
+        }
+        currentRow.put((int) new CellReference(cellReference).getCol(), formattedValue);
+    }
+
+    @Override
+    public void headerFooter(String text, boolean isHeader, String tagName) {
+        // Encabezados y pies de página no aplican a la carga de catálogos
+    }
+}
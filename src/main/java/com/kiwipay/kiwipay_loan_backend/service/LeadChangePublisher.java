@@ -0,0 +1,292 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadChangeEvent;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse;
+import com.kiwipay.kiwipay_loan_backend.entity.Lead;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.exception.ServiceUnavailableException;
+import com.kiwipay.kiwipay_loan_backend.outbox.LeadEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans lead changes out to the Server-Sent Events subscribers of this node.
+ * Changes are published after their transaction commits and copied into a bounded buffer per
+ * subscriber; a small sender pool drains each buffer, one task per subscriber at a time, so a
+ * slow client only delays itself. When a buffer overflows its pending changes are dropped and
+ * the client gets a "resync" event telling it to reload the list instead of an incomplete stream.
+ * Changes made on other replicas are not seen here.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeadChangePublisher {
+
+    static final String CHANGE_EVENT = "lead";
+    static final String RESYNC_EVENT = "resync";
+    static final String READY_EVENT = "ready";
+
+    private final MeterRegistry meterRegistry;
+    private final CatalogService catalogService;
+
+    @Value("${kiwipay.leads.changes.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${kiwipay.leads.changes.retry-after:PT30S}")
+    private Duration retryAfter;
+
+    @Value("${kiwipay.leads.changes.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${kiwipay.leads.changes.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${kiwipay.leads.changes.sender-threads:4}")
+    private int senderThreads;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private ExecutorService senders;
+    private Counter resyncs;
+
+    /**
+     * A change and its position in this node's stream, sent as the SSE id.
+     */
+    private record Delta(long id, LeadChangeEvent event) {
+    }
+
+    @PostConstruct
+    void init() {
+        senders = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("lead-changes-"));
+        Gauge.builder("kiwipay.leads.changes.subscribers", subscribers, Set::size)
+                .description("Open lead change streams")
+                .register(meterRegistry);
+        resyncs = Counter.builder("kiwipay.leads.changes.resyncs")
+                .description("Lead change streams that overflowed and were asked to resync")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+
+    /**
+     * Opens a stream of the changes matching the filters. A lead matches the status filter when
+     * it enters or leaves that status.
+     *
+     * @param resumed true when the client reconnects after a drop (Last-Event-ID sent); changes
+     *                are not replayed, so it starts with a resync event instead of ready
+     */
+    public SseEmitter subscribe(LeadStatus status, Long clinicId, boolean resumed) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException(
+                    "Se alcanzó el máximo de suscripciones a cambios de leads, intente nuevamente", retryAfter);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(status, clinicId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+
+        if (resumed) {
+            subscriber.resync.set(true);
+        } else {
+            subscriber.ready.set(true);
+        }
+        subscriber.schedule();
+        log.debug("Lead change stream opened - status: {}, clinicId: {}, subscribers: {}",
+                  status, clinicId, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Publishes a change once the current transaction commits; rolled back changes are never sent.
+     * The lead is copied immediately, so later modifications of the entity are not seen; clinic and
+     * specialty names come from the catalog cache, as the lead may hold uninitialized references.
+     */
+    public void publish(LeadEventType type, Lead lead, LeadStatus previousStatus) {
+        LeadChangeEvent event = LeadChangeEvent.builder()
+                .type(type)
+                .clinicId(lead.getClinic().getId())
+                .previousStatus(previousStatus)
+                .occurredAt(LocalDateTime.now())
+                .lead(new LeadResponse(lead.getId(), lead.getClientName(), lead.getDni(),
+                        catalogService.findClinic(lead.getClinic().getId()).map(CatalogEntry::name).orElse(null),
+                        catalogService.findMedicalSpecialty(lead.getMedicalSpecialty().getId())
+                                .map(CatalogEntry::name).orElse(null),
+                        lead.getTreatmentCost(), lead.getPhone(), lead.getStatus(), lead.getCreatedAt()))
+                .build();
+        afterCommit(() -> dispatch(event));
+    }
+
+    /**
+     * Publishes the creation of each lead in the list.
+     */
+    public void created(List<Lead> leads) {
+        for (Lead lead : leads) {
+            publish(LeadEventType.LEAD_CREATED, lead, null);
+        }
+    }
+
+    /**
+     * Sends a comment to every stream so idle connections stay open and dead ones are detected.
+     */
+    @Scheduled(fixedDelayString = "${kiwipay.leads.changes.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat.set(true);
+            subscriber.schedule();
+        }
+    }
+
+    private void dispatch(LeadChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Delta delta = new Delta(sequence.incrementAndGet(), event);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.matches(event)) {
+                subscriber.offer(delta);
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final LeadStatus status;
+        private final Long clinicId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Delta> buffer;
+        private final AtomicBoolean ready = new AtomicBoolean();
+        private final AtomicBoolean resync = new AtomicBoolean();
+        private final AtomicBoolean heartbeat = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(LeadStatus status, Long clinicId, SseEmitter emitter) {
+            this.status = status;
+            this.clinicId = clinicId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        boolean matches(LeadChangeEvent event) {
+            if (clinicId != null && !clinicId.equals(event.getClinicId())) {
+                return false;
+            }
+            return status == null
+                    || status == event.getLead().getStatus()
+                    || status == event.getPreviousStatus();
+        }
+
+        void offer(Delta delta) {
+            if (!buffer.offer(delta)) {
+                // The client reloads after the resync, so nothing still buffered is needed
+                buffer.clear();
+                if (!resync.getAndSet(true)) {
+                    resyncs.increment();
+                }
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (closed || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private void drain() {
+            try {
+                while (!closed) {
+                    if (ready.getAndSet(false)) {
+                        emitter.send(SseEmitter.event().id(String.valueOf(sequence.get())).name(READY_EVENT).data(""));
+                    } else if (resync.getAndSet(false)) {
+                        buffer.clear();
+                        emitter.send(SseEmitter.event().id(String.valueOf(sequence.get())).name(RESYNC_EVENT).data(""));
+                    } else {
+                        Delta delta = buffer.poll();
+                        if (delta == null) {
+                            if (heartbeat.getAndSet(false)) {
+                                emitter.send(SseEmitter.event().comment("heartbeat"));
+                            }
+                            break;
+                        }
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(delta.id()))
+                                .name(CHANGE_EVENT)
+                                .data(delta.event(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client gone or emitter already completed; the container reports the error to onError
+                log.debug("Lead change stream closed: {}", e.getMessage());
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Changes offered between the last poll and releasing the flag
+            if (!buffer.isEmpty() || resync.get()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import com.kiwipay.kiwipay_loan_backend.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last lead returned by a keyset page.
+ * Encoded as an opaque URL-safe token built from (created_at, id).
+ */
+public record LeadCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the cursor as an opaque token for clients.
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the opaque cursor, may be null or blank for the first page
+     * @return the decoded cursor or null when no token was provided
+     */
+    public static LeadCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BusinessException("Cursor inválido: " + token);
+            }
+            return new LeadCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                  Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Cursor inválido: " + token, e);
+        }
+    }
+}
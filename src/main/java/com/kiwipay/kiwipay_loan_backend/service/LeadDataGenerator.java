@@ -0,0 +1,327 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generador de datos de volumen para reproducir el comportamiento de producción.
+ * Carga clínicas, especialidades y leads con COPY ... FROM STDIN, con sesgo realista:
+ * pocas clínicas concentran la mayoría de leads, los meses recientes son más densos
+ * y los estados siguen un embudo. Solo se activa con el perfil datagen:
+ *
+ * <pre>
+ * ./gradlew bootRun --args='--spring.profiles.active=dev,datagen --kiwipay.datagen.leads=10000000'
+ * </pre>
+ */
+@Component
+@Profile("datagen")
+@RequiredArgsConstructor
+@Slf4j
+public class LeadDataGenerator implements ApplicationRunner {
+
+    private static final int FLUSH_BYTES = 1 << 20;
+    private static final long PROGRESS_EVERY = 1_000_000;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] STATUSES =
+            {"NUEVO", "CONTACTADO", "EN_EVALUACION", "PRE_APROBADO", "APROBADO", "RECHAZADO", "DESEMBOLSADO"};
+    private static final double[] STATUS_WEIGHTS = {0.35, 0.20, 0.15, 0.08, 0.07, 0.10, 0.05};
+
+    // DNI y teléfono de 8 cifras: permutación afín de [0, 90M), A coprimo con 90M (2^7 * 3^2 * 5^7)
+    private static final long EIGHT_DIGITS = 90_000_000L;
+    private static final long DNI_MULTIPLIER = 48_271;
+    private static final long PHONE_MULTIPLIER = 16_807;
+    private static final String[] CATEGORIES =
+            {"Odontología", "Oftalmología", "Dermatología", "Cirugía Plástica", "Medicina General", "Fertilidad"};
+
+    private final DataSource dataSource;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${kiwipay.datagen.clinics:200}")
+    private int clinics;
+
+    @Value("${kiwipay.datagen.specialties:60}")
+    private int specialties;
+
+    @Value("${kiwipay.datagen.leads:1000000}")
+    private long leads;
+
+    @Value("${kiwipay.datagen.months:24}")
+    private int months;
+
+    @Value("${kiwipay.datagen.seed:42}")
+    private long seed;
+
+    @Value("${kiwipay.datagen.rebuild-indexes:true}")
+    private boolean rebuildIndexes;
+
+    @Value("${kiwipay.datagen.exit-on-completion:true}")
+    private boolean exitOnCompletion;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Generando {} clínicas, {} especialidades y {} leads", clinics, specialties, leads);
+        long start = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                generate(connection);
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            }
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE clinics");
+                statement.execute("ANALYZE medical_specialties");
+                statement.execute("ANALYZE leads");
+            }
+        }
+
+        log.info("Generación completada en {} s", (System.nanoTime() - start) / 1_000_000_000);
+        if (exitOnCompletion) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private void generate(Connection connection) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        long firstClinicId = reserveIds(connection, clinics + specialties + leads);
+        long firstSpecialtyId = firstClinicId + clinics;
+        long firstLeadId = firstSpecialtyId + specialties;
+
+        // Particiones mensuales (V7) para toda la ventana de created_at; el resto iría a leads_default
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT leads_create_partitions(CURRENT_DATE - " + (months * 30 + 1)
+                    + ", (CURRENT_DATE + INTERVAL '3 months')::date)");
+        }
+
+        // Los índices secundarios se recrean al final: construirlos una vez es mucho más rápido
+        // que mantenerlos fila por fila durante el COPY
+        List<String> indexes = rebuildIndexes ? dropLeadIndexes(connection) : List.of();
+
+        try (CopyWriter out = new CopyWriter(copyManager.copyIn(
+                "COPY clinics (id, name, address, active) FROM STDIN"))) {
+            for (int i = 0; i < clinics; i++) {
+                out.row(firstClinicId + i, "Clínica " + (i + 1), "Av. Generada " + (i + 1), "t");
+            }
+        }
+
+        try (CopyWriter out = new CopyWriter(copyManager.copyIn(
+                "COPY medical_specialties (id, name, category, active) FROM STDIN"))) {
+            for (int i = 0; i < specialties; i++) {
+                out.row(firstSpecialtyId + i, "Especialidad " + (i + 1), CATEGORIES[i % CATEGORIES.length], "t");
+            }
+        }
+
+        copyLeads(copyManager, random, firstLeadId, firstClinicId, firstSpecialtyId);
+
+        try (Statement statement = connection.createStatement()) {
+            for (String definition : indexes) {
+                log.info("Recreando índice: {}", definition);
+                statement.execute(definition);
+            }
+            // El COPY no pasa por LeadServiceImpl: el resumen de estadísticas se recalcula completo
+            statement.execute("SELECT lead_daily_stats_rebuild()");
+            // Los updated_at generados quedan en el pasado: el embudo se reconstruye desde cero
+            statement.execute("SELECT lead_funnel_reset()");
+            // El historial de estados de los leads generados empieza en su estado actual
+            statement.execute("INSERT INTO lead_status_events (lead_id, from_status, to_status, changed_at, changed_by) "
+                    + "SELECT id, NULL, status, created_at, created_by FROM leads WHERE id >= " + firstLeadId);
+        }
+    }
+
+    private void copyLeads(CopyManager copyManager, SplittableRandom random,
+                           long firstLeadId, long firstClinicId, long firstSpecialtyId) throws SQLException {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        long windowSeconds = months * 30L * 24 * 3600;
+        long start = System.nanoTime();
+
+        try (CopyWriter out = new CopyWriter(copyManager.copyIn(
+                "COPY leads (id, receptionist_name, client_name, clinic_id, medical_specialty_id, dni, "
+                        + "monthly_income, treatment_cost, phone, email, status, origin, created_at, updated_at) "
+                        + "FROM STDIN"))) {
+            for (long i = 0; i < leads; i++) {
+                // u^2 concentra los leads en los meses recientes (crecimiento del negocio)
+                double recency = random.nextDouble();
+                long ageSeconds = (long) (recency * recency * windowSeconds);
+                LocalDateTime createdAt = now.minusSeconds(ageSeconds)
+                        .withHour(8 + random.nextInt(12));
+                if (createdAt.isAfter(now)) {
+                    createdAt = now;
+                }
+                String status = ageSeconds < 3 * 24 * 3600 && random.nextDouble() < 0.7
+                        ? "NUEVO"
+                        : pick(STATUSES, STATUS_WEIGHTS, random.nextDouble());
+                LocalDateTime updatedAt = "NUEVO".equals(status)
+                        ? createdAt
+                        : min(createdAt.plusSeconds(random.nextLong(14L * 24 * 3600)), now);
+
+                out.row(firstLeadId + i,
+                        "Recepcionista " + (1 + random.nextInt(300)),
+                        "Cliente " + (i + 1),
+                        firstClinicId + skewed(random, clinics, 2.5),
+                        firstSpecialtyId + skewed(random, specialties, 1.5),
+                        String.valueOf(10_000_000 + scramble(firstLeadId + i, DNI_MULTIPLIER)),
+                        money(Math.min(Math.exp(8.0 + 0.5 * random.nextGaussian()), 99_999_999)),
+                        money(Math.min(Math.exp(8.5 + 0.8 * random.nextGaussian()), 99_999_999)),
+                        "9" + (10_000_000 + scramble(firstLeadId + i, PHONE_MULTIPLIER)),
+                        random.nextDouble() < 0.7 ? "cliente" + (i + 1) + "@example.com" : null,
+                        status,
+                        random.nextDouble() < 0.85 ? "WEB" : "BATCH",
+                        TIMESTAMP.format(createdAt),
+                        TIMESTAMP.format(updatedAt));
+
+                if ((i + 1) % PROGRESS_EVERY == 0) {
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    log.info("{} leads copiados ({} filas/s)", i + 1, (long) ((i + 1) / seconds));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserva un rango contiguo de IDs en kiwipay_id_seq y deja la secuencia por encima de él,
+     * de modo que los bloques pooled-lo de Hibernate nunca se solapan con los datos generados.
+     */
+    private long reserveIds(Connection connection, long count) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT nextval('kiwipay_id_seq')")) {
+            rs.next();
+            long first = rs.getLong(1);
+            try (ResultSet ignored = statement.executeQuery(
+                    "SELECT setval('kiwipay_id_seq', " + (first + count) + ", false)")) {
+                return first;
+            }
+        }
+    }
+
+    private List<String> dropLeadIndexes(Connection connection) throws SQLException {
+        List<String> definitions = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT i.indexname, i.indexdef
+                     FROM pg_indexes i
+                     JOIN pg_class c ON c.relname = i.indexname
+                     JOIN pg_index x ON x.indexrelid = c.oid
+                     WHERE i.schemaname = current_schema() AND i.tablename = 'leads'
+                       AND NOT x.indisprimary AND NOT x.indisunique
+                     """)) {
+            while (rs.next()) {
+                names.add(rs.getString(1));
+                // En la tabla particionada pg_indexes devuelve "ON ONLY leads": sin ONLY el índice
+                // se vuelve a crear también en cada partición
+                definitions.add(rs.getString(2).replace(" ON ONLY ", " ON "));
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String name : names) {
+                statement.execute("DROP INDEX \"" + name + "\"");
+            }
+        }
+        return definitions;
+    }
+
+    /**
+     * Biyección de [0, 90M) que desordena los IDs: DNIs y teléfonos únicos (como exige el servicio
+     * con existsByDni) mientras los IDs de lead no superen los 90M, sin patrón secuencial en el índice.
+     */
+    private static long scramble(long leadId, long multiplier) {
+        return (Math.floorMod(leadId, EIGHT_DIGITS) * multiplier + 12_345_679) % EIGHT_DIGITS;
+    }
+
+    private static long skewed(SplittableRandom random, int size, double exponent) {
+        // Distribución tipo Zipf: las primeras posiciones reciben la mayoría de filas
+        return Math.min(size - 1, (long) (size * Math.pow(random.nextDouble(), exponent)));
+    }
+
+    private static String pick(String[] values, double[] weights, double u) {
+        double cumulative = 0;
+        for (int i = 0; i < values.length; i++) {
+            cumulative += weights[i];
+            if (u < cumulative) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    private static String money(double value) {
+        return String.valueOf(Math.round(value * 100) / 100.0);
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Escribe filas en formato texto de COPY (tabuladores, \N para nulos) con un búfer propio.
+     * Los valores generados nunca contienen tabuladores, saltos de línea ni barras invertidas.
+     */
+    private static final class CopyWriter implements AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+        private boolean completed;
+
+        CopyWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                buffer.append(values[i] == null ? "\\N" : values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_BYTES) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            flush();
+            copyIn.endCopy();
+        }
+    }
+}
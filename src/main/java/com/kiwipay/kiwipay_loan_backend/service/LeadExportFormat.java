@@ -0,0 +1,25 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+/**
+ * Enum representing the supported formats for streaming lead exports.
+ */
+public enum LeadExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    LeadExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,11 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+/**
+ * Enum representing the dimensions a conversion funnel can be broken down by.
+ */
+public enum LeadFunnelGrouping {
+    NONE,
+    MONTH,
+    CLINIC,
+    SPECIALTY
+}
@@ -0,0 +1,224 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadFunnelResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadFunnelSeries;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadFunnelStage;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.exception.BusinessException;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadFunnelRepository;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadFunnelRepository.Change;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadFunnelRepository.Fact;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadFunnelRepository.RollupKey;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadFunnelRepository.RollupRow;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadFunnelRepository.Watermark;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Conversion funnels from NUEVO to DESEMBOLSADO, served from rollup tables.
+ * A scheduled job folds the leads changed since the stored (updated_at, id) watermark into
+ * the rollups in bounded batches, so each refresh costs O(changed leads). Stages follow
+ * {@link LeadStatus#funnelStages()}; a lead counts as having reached every stage up to the
+ * furthest one it was seen at, and RECHAZADO marks it rejected without resetting that stage.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeadFunnelService {
+
+    // Longest range served by the funnel endpoint
+    private static final int MAX_FUNNEL_MONTHS = 60;
+
+    private final LeadFunnelRepository leadFunnelRepository;
+    private final CatalogService catalogService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${kiwipay.leads.funnel.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${kiwipay.leads.funnel.safety-lag:PT1M}")
+    private Duration safetyLag;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Folds every lead changed since the watermark into the rollups, one committed batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${kiwipay.leads.funnel.refresh-interval:PT5M}",
+               initialDelayString = "${kiwipay.leads.funnel.refresh-interval:PT5M}")
+    public void refresh() {
+        long total = 0;
+        int processed;
+        do {
+            Integer batch = transactionTemplate.execute(status -> refreshBatch());
+            processed = batch != null ? batch : 0;
+            total += processed;
+        } while (processed == batchSize);
+
+        if (total > 0) {
+            log.info("Funnel rollups refreshed with {} changed leads", total);
+        }
+    }
+
+    private int refreshBatch() {
+        Optional<Watermark> watermark = leadFunnelRepository.lockWatermark();
+        if (watermark.isEmpty()) {
+            log.debug("Funnel refresh already running elsewhere; skipping");
+            return 0;
+        }
+
+        List<Change> changes = leadFunnelRepository.findChangedAfter(watermark.get(), safetyLag, batchSize);
+        if (changes.isEmpty()) {
+            leadFunnelRepository.markRefreshed();
+            return 0;
+        }
+
+        Map<Long, Fact> previous = leadFunnelRepository.findFacts(changes.stream().map(Change::leadId).toList());
+        Map<RollupKey, Long> deltas = new TreeMap<>(LeadFunnelRepository.ROLLUP_KEY_ORDER);
+        List<Fact> facts = new ArrayList<>(changes.size());
+
+        for (Change change : changes) {
+            Fact before = previous.get(change.leadId());
+            Fact after = toFact(change, before);
+            if (after.equals(before)) {
+                continue;
+            }
+            if (before != null) {
+                deltas.merge(before.rollupKey(), -1L, Long::sum);
+            }
+            deltas.merge(after.rollupKey(), 1L, Long::sum);
+            facts.add(after);
+        }
+
+        leadFunnelRepository.saveFacts(facts);
+        leadFunnelRepository.applyRollupDeltas(deltas);
+        Change last = changes.get(changes.size() - 1);
+        leadFunnelRepository.advanceWatermark(last.updatedAt(), last.leadId());
+        return changes.size();
+    }
+
+    private static Fact toFact(Change change, Fact before) {
+        int stage = change.status().isFunnelStage()
+                ? LeadStatus.funnelStages().indexOf(change.status())
+                : 0;
+        int furthest = before != null ? Math.max(before.furthestStage(), stage) : stage;
+        return new Fact(change.leadId(), change.cohortMonth(), change.clinicId(), change.medicalSpecialtyId(),
+                furthest, change.status() == LeadStatus.RECHAZADO);
+    }
+
+    /**
+     * Funnel of the leads created between the given months, optionally filtered and grouped.
+     *
+     * @param startMonth first creation month included (default: 11 months before endMonth)
+     * @param endMonth last creation month included (default: current month)
+     * @param clinicId optional clinic filter
+     * @param medicalSpecialtyId optional specialty filter
+     * @param groupBy dimension of the returned series; NONE returns a single total series
+     */
+    public LeadFunnelResponse getFunnel(YearMonth startMonth,
+                                        YearMonth endMonth,
+                                        Long clinicId,
+                                        Long medicalSpecialtyId,
+                                        LeadFunnelGrouping groupBy) {
+        YearMonth end = endMonth != null ? endMonth : YearMonth.now();
+        YearMonth start = startMonth != null ? startMonth : end.minusMonths(11);
+        LeadFunnelGrouping grouping = groupBy != null ? groupBy : LeadFunnelGrouping.NONE;
+        if (start.isAfter(end)) {
+            throw new BusinessException("El mes de inicio no puede ser posterior al mes de fin");
+        }
+        if (start.plusMonths(MAX_FUNNEL_MONTHS).isBefore(end)) {
+            throw new BusinessException("El rango no puede superar los " + MAX_FUNNEL_MONTHS + " meses");
+        }
+
+        List<LeadStatus> stages = LeadStatus.funnelStages();
+        Map<String, long[]> byFurthestStage = new LinkedHashMap<>();
+        Map<String, Long> rejected = new LinkedHashMap<>();
+        for (RollupRow row : leadFunnelRepository.summarize(grouping, start.atDay(1), end.atDay(1),
+                                                           clinicId, medicalSpecialtyId)) {
+            byFurthestStage.computeIfAbsent(row.groupKey(), key -> new long[stages.size()])[row.furthestStage()] += row.count();
+            if (row.rejected()) {
+                rejected.merge(row.groupKey(), row.count(), Long::sum);
+            }
+        }
+
+        List<LeadFunnelSeries> series = new ArrayList<>(byFurthestStage.size());
+        byFurthestStage.forEach((key, counts) ->
+                series.add(series(key, label(grouping, key), counts, rejected.getOrDefault(key, 0L), stages)));
+        series.sort(grouping == LeadFunnelGrouping.MONTH
+                ? Comparator.comparing(LeadFunnelSeries::getKey)
+                : Comparator.comparingLong(LeadFunnelSeries::getTotal).reversed());
+
+        return LeadFunnelResponse.builder()
+                .startMonth(start)
+                .endMonth(end)
+                .groupBy(grouping)
+                .refreshedUpTo(leadFunnelRepository.findWatermark().map(Watermark::lastUpdatedAt).orElse(null))
+                .series(series)
+                .build();
+    }
+
+    private static LeadFunnelSeries series(String key, String label, long[] byFurthestStage,
+                                           long rejected, List<LeadStatus> stages) {
+        // reached[s] = leads whose furthest stage is s or later
+        long[] reached = new long[stages.size()];
+        long cumulative = 0;
+        for (int s = stages.size() - 1; s >= 0; s--) {
+            cumulative += byFurthestStage[s];
+            reached[s] = cumulative;
+        }
+
+        List<LeadFunnelStage> funnel = new ArrayList<>(stages.size());
+        for (int s = 0; s < stages.size(); s++) {
+            funnel.add(LeadFunnelStage.builder()
+                    .status(stages.get(s))
+                    .label(stages.get(s).getDisplayName())
+                    .reached(reached[s])
+                    .conversionFromPrevious(s == 0 ? 1.0 : ratio(reached[s], reached[s - 1]))
+                    .conversionFromStart(ratio(reached[s], reached[0]))
+                    .build());
+        }
+
+        return LeadFunnelSeries.builder()
+                .key(key)
+                .label(label)
+                .total(reached[0])
+                .rejected(rejected)
+                .stages(funnel)
+                .build();
+    }
+
+    private String label(LeadFunnelGrouping grouping, String key) {
+        return switch (grouping) {
+            case NONE -> "Total";
+            case MONTH -> key;
+            case CLINIC -> catalogService.findClinic(Long.valueOf(key)).map(CatalogEntry::name).orElse(key);
+            case SPECIALTY -> catalogService.findMedicalSpecialty(Long.valueOf(key))
+                    .map(CatalogEntry::name).orElse(key);
+        };
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0.0 : (double) part / whole;
+    }
+}
@@ -0,0 +1,76 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of the leads table (see V7__partition_leads_by_month.sql).
+ * Creates the partitions for the coming months ahead of time and, when a retention is
+ * configured, detaches the partitions that fell out of it: an instant metadata change
+ * instead of a DELETE over millions of rows. Detached partitions are moved to the
+ * leads_archive schema unless drop-archived is set.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeadPartitionService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${kiwipay.leads.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${kiwipay.leads.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${kiwipay.leads.partitions.drop-archived:false}")
+    private boolean dropArchived;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensureFuturePartitions();
+    }
+
+    @Scheduled(cron = "${kiwipay.leads.partitions.cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        ensureFuturePartitions();
+        if (retentionMonths > 0) {
+            archiveExpiredPartitions();
+        }
+    }
+
+    /**
+     * Creates any missing partition from the current month up to months-ahead months from now.
+     */
+    public int ensureFuturePartitions() {
+        LocalDate today = LocalDate.now();
+        Integer created = jdbcTemplate.queryForObject("SELECT leads_create_partitions(?, ?)", Integer.class,
+                today, today.plusMonths(monthsAhead));
+        if (created != null && created > 0) {
+            log.info("Created {} lead partitions up to {} months ahead", created, monthsAhead);
+        }
+        return created == null ? 0 : created;
+    }
+
+    /**
+     * Detaches the partitions whose whole month is older than retention-months.
+     */
+    public List<String> archiveExpiredPartitions() {
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+        List<String> archived = jdbcTemplate.queryForList("SELECT leads_archive_partitions(?, ?)", String.class,
+                cutoff, dropArchived);
+        if (!archived.isEmpty()) {
+            log.info("{} lead partitions before {}: {}", dropArchived ? "Dropped" : "Archived", cutoff, archived);
+        }
+        return archived;
+    }
+}
@@ -2,12 +2,20 @@ package com.kiwipay.kiwipay_loan_backend.service;
 
 import com.kiwipay.kiwipay_loan_backend.dto.request.CreateLeadRequest;
 import com.kiwipay.kiwipay_loan_backend.dto.request.UpdateLeadRequest;
+import com.kiwipay.kiwipay_loan_backend.dto.response.CursorPageResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadBatchResponse;
 import com.kiwipay.kiwipay_loan_backend.dto.response.LeadDetailResponse;
 import com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadStageDurationResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadStatsResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadStatusEventResponse;
 import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -25,6 +33,15 @@ public interface LeadService {
      */
     LeadDetailResponse createLead(CreateLeadRequest request);
 
+    /**
+     * Create several leads in a single request.
+     * Invalid items are rejected individually; the valid ones are inserted in JDBC batches.
+     * 
+     * @param requests the lead creation requests
+     * @return the totals and the result of each item, in request order
+     */
+    LeadBatchResponse createLeads(List<CreateLeadRequest> requests);
+
     /**
      * Get paginated list of leads with optional filters.
      * 
@@ -41,6 +58,25 @@ public interface LeadService {
                                 LocalDateTime endDate, 
                                 Pageable pageable);
 
+    /**
+     * Get a keyset (cursor) page of leads with optional filters.
+     * Pages are ordered by creation date and ID descending and never issue a count query.
+     *
+     * @param status optional status filter
+     * @param clinicId optional clinic filter
+     * @param startDate optional start date filter
+     * @param endDate optional end date filter
+     * @param cursor opaque cursor from the previous page, null for the first page
+     * @param size maximum number of leads to return
+     * @return cursor page of lead responses
+     */
+    CursorPageResponse<LeadResponse> getLeadsByCursor(LeadStatus status,
+                                                      Long clinicId,
+                                                      LocalDateTime startDate,
+                                                      LocalDateTime endDate,
+                                                      String cursor,
+                                                      int size);
+
     /**
      * Get detailed information of a specific lead.
      * 
@@ -88,4 +124,54 @@ public interface LeadService {
                                           Long clinicId, 
                                           LocalDateTime startDate, 
                                           LocalDateTime endDate);
-} 
\ No newline at end of file
+
+    /**
+     * Stream all leads matching the optional filters to the given output, one row at a time.
+     * Rows are read as projections and flushed per chunk so memory stays flat regardless of row count.
+     * 
+     * @param status optional status filter
+     * @param clinicId optional clinic filter
+     * @param startDate optional start date filter
+     * @param endDate optional end date filter
+     * @param format the export format
+     * @param output the stream the rows are written to
+     * @return number of exported leads
+     * @throws IOException if writing to the output fails
+     */
+    long exportLeads(LeadStatus status,
+                     Long clinicId,
+                     LocalDateTime startDate,
+                     LocalDateTime endDate,
+                     LeadExportFormat format,
+                     OutputStream output) throws IOException;
+
+    /**
+     * Get lead counts and treatment cost sums by status, clinic, specialty and day.
+     * Read from the incrementally maintained summary, so the cost depends on the number
+     * of groups and not on the number of leads.
+     *
+     * @param startDate first creation day included
+     * @param endDate last creation day included
+     * @param clinicId optional clinic filter
+     * @return the statistics of the range
+     */
+    LeadStatsResponse getLeadStats(LocalDate startDate, LocalDate endDate, Long clinicId);
+
+    /**
+     * Get the status history of a lead, oldest first, with the time spent in each status.
+     *
+     * @param id the lead ID
+     * @return the timeline of the lead
+     */
+    List<LeadStatusEventResponse> getLeadTimeline(Long id);
+
+    /**
+     * Get time-in-stage percentiles per status for the stays that started in the date range.
+     * Stays still open are not counted.
+     *
+     * @param startDate first day included
+     * @param endDate last day included
+     * @return one entry per status with completed stays, in funnel order
+     */
+    List<LeadStageDurationResponse> getStageDurations(LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,55 @@
+package com.kiwipay.kiwipay_loan_backend.service;
+
+import com.kiwipay.kiwipay_loan_backend.entity.Lead;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadStatusEventRepository;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadStatusEventRepository.Event;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends lead status events to lead_status_events in the caller's transaction, as one
+ * JDBC batch per call, so the history has an event if and only if the transition it
+ * describes was committed. A failed insert rolls the lead change back with it instead
+ * of leaving a gap in the timeline and stage-duration results.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeadStatusEventWriter {
+
+    private final LeadStatusEventRepository leadStatusEventRepository;
+    private final AuditorAware<String> auditorProvider;
+
+    /**
+     * Records the creation of the given leads as their first event.
+     */
+    public void created(List<Lead> leads) {
+        String auditor = currentAuditor();
+        List<Event> events = new ArrayList<>(leads.size());
+        for (Lead lead : leads) {
+            events.add(new Event(lead.getId(), null, lead.getStatus(),
+                    lead.getCreatedAt() != null ? lead.getCreatedAt() : LocalDateTime.now(), auditor));
+        }
+        leadStatusEventRepository.insertAll(events);
+    }
+
+    /**
+     * Records a status transition. Calls where the status does not change are ignored.
+     */
+    public void statusChanged(Lead lead, LeadStatus from, LeadStatus to) {
+        if (from == to) {
+            return;
+        }
+        leadStatusEventRepository.insertAll(List.of(
+                new Event(lead.getId(), from, to, LocalDateTime.now(), currentAuditor())));
+    }
+
+    private String currentAuditor() {
+        return auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+    }
+}
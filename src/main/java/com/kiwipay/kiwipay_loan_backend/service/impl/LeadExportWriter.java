@@ -0,0 +1,84 @@
+package com.kiwipay.kiwipay_loan_backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse;
+import com.kiwipay.kiwipay_loan_backend.service.LeadExportFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes lead rows one at a time in the requested export format.
+ * Nothing is buffered beyond the underlying writer, so memory stays flat for any export size.
+ */
+class LeadExportWriter {
+
+    private static final String CSV_HEADER =
+            "id,clientName,dni,clinicName,medicalSpecialtyName,treatmentCost,phone,status,createdAt";
+
+    private final LeadExportFormat format;
+    private final Writer writer;
+    private final ObjectMapper objectMapper;
+
+    LeadExportWriter(LeadExportFormat format, Writer writer, ObjectMapper objectMapper) {
+        this.format = format;
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+    }
+
+    void writeHeader() throws IOException {
+        if (format == LeadExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    void writeRow(LeadResponse lead) throws IOException {
+        if (format == LeadExportFormat.CSV) {
+            writeCsvRow(lead);
+        } else {
+            writer.write(objectMapper.writeValueAsString(lead));
+        }
+        writer.write('\n');
+    }
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeCsvRow(LeadResponse lead) throws IOException {
+        writer.write(csvValue(lead.getId()));
+        writer.write(',');
+        writer.write(csvValue(lead.getClientName()));
+        writer.write(',');
+        writer.write(csvValue(lead.getDni()));
+        writer.write(',');
+        writer.write(csvValue(lead.getClinicName()));
+        writer.write(',');
+        writer.write(csvValue(lead.getMedicalSpecialtyName()));
+        writer.write(',');
+        writer.write(csvValue(lead.getTreatmentCost() != null ? lead.getTreatmentCost().toPlainString() : null));
+        writer.write(',');
+        writer.write(csvValue(lead.getPhone()));
+        writer.write(',');
+        writer.write(csvValue(lead.getStatus()));
+        writer.write(',');
+        writer.write(csvValue(lead.getCreatedAt()));
+    }
+
+    /**
+     * Quotes a value per RFC 4180 when it contains a separator, quote or line break.
+     */
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0
+                && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
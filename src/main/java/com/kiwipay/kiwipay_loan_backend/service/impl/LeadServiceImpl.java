@@ -1,28 +1,69 @@
 package com.kiwipay.kiwipay_loan_backend.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kiwipay.kiwipay_loan_backend.dto.request.CreateLeadRequest;
 import com.kiwipay.kiwipay_loan_backend.dto.request.UpdateLeadRequest;
+import com.kiwipay.kiwipay_loan_backend.dto.response.CursorPageResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadBatchItemResult;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadBatchResponse;
 import com.kiwipay.kiwipay_loan_backend.dto.response.LeadDetailResponse;
 import com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse;
-import com.kiwipay.kiwipay_loan_backend.entity.Clinic;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadStageDurationResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadStatsBucket;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadStatsResponse;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadStatusEventResponse;
 import com.kiwipay.kiwipay_loan_backend.entity.Lead;
 import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
-import com.kiwipay.kiwipay_loan_backend.entity.MedicalSpecialty;
 import com.kiwipay.kiwipay_loan_backend.exception.ResourceNotFoundException;
 import com.kiwipay.kiwipay_loan_backend.exception.BusinessException;
-import com.kiwipay.kiwipay_loan_backend.repository.ClinicRepository;
+import com.kiwipay.kiwipay_loan_backend.metrics.LeadMetrics;
+import com.kiwipay.kiwipay_loan_backend.outbox.LeadEventType;
+import com.kiwipay.kiwipay_loan_backend.outbox.LeadOutboxWriter;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadBatchRepository;
 import com.kiwipay.kiwipay_loan_backend.repository.LeadRepository;
-import com.kiwipay.kiwipay_loan_backend.repository.MedicalSpecialtyRepository;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadStatsRepository;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadStatusEventRepository;
+import com.kiwipay.kiwipay_loan_backend.service.CatalogEntry;
+import com.kiwipay.kiwipay_loan_backend.service.CatalogService;
+import com.kiwipay.kiwipay_loan_backend.service.LeadChangePublisher;
+import com.kiwipay.kiwipay_loan_backend.service.LeadStatusEventWriter;
+import com.kiwipay.kiwipay_loan_backend.service.LeadCursor;
+import com.kiwipay.kiwipay_loan_backend.service.LeadExportFormat;
 import com.kiwipay.kiwipay_loan_backend.service.LeadService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.kiwipay.kiwipay_loan_backend.config.CacheConfig.LEADS_CACHE;
 
 /**
  * Implementation of LeadService.
@@ -34,9 +75,29 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class LeadServiceImpl implements LeadService {
 
+    // Same upper bound as spring.data.web.pageable.max-page-size
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // Rows written between flushes of the export output
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    // Longest range served by the statistics endpoint (one bucket per day)
+    private static final int MAX_STATS_DAYS = 366;
+
     private final LeadRepository leadRepository;
-    private final ClinicRepository clinicRepository;
-    private final MedicalSpecialtyRepository medicalSpecialtyRepository;
+    private final CatalogService catalogService;
+    private final ObjectMapper objectMapper;
+    private final LeadBatchRepository leadBatchRepository;
+    private final Validator validator;
+    private final LeadMetrics leadMetrics;
+    private final LeadStatsRepository leadStatsRepository;
+    private final LeadStatusEventRepository leadStatusEventRepository;
+    private final LeadStatusEventWriter leadStatusEventWriter;
+    private final LeadOutboxWriter leadOutboxWriter;
+    private final LeadChangePublisher leadChangePublisher;
+
+    @Value("${kiwipay.leads.batch.max-size:500}")
+    private int maxBatchSize;
 
     @Override
     @Transactional
@@ -48,40 +109,103 @@ public class LeadServiceImpl implements LeadService {
             throw new BusinessException("Ya existe un lead con el DNI: " + request.getDni());
         }
 
-        // Fetch and validate clinic
-        Clinic clinic = clinicRepository.findById(request.getClinicId())
+        // Fetch and validate clinic (served from the catalog cache)
+        CatalogEntry clinic = catalogService.findClinic(request.getClinicId())
                 .orElseThrow(() -> new ResourceNotFoundException("Clínica no encontrada con ID: " + request.getClinicId()));
 
-        if (!clinic.getActive()) {
+        if (!clinic.active()) {
             throw new BusinessException("La clínica seleccionada no está activa");
         }
 
-        // Fetch and validate medical specialty
-        MedicalSpecialty medicalSpecialty = medicalSpecialtyRepository.findById(request.getMedicalSpecialtyId())
+        // Fetch and validate medical specialty (served from the catalog cache)
+        CatalogEntry medicalSpecialty = catalogService.findMedicalSpecialty(request.getMedicalSpecialtyId())
                 .orElseThrow(() -> new ResourceNotFoundException("Especialidad médica no encontrada con ID: " + request.getMedicalSpecialtyId()));
 
-        if (!medicalSpecialty.getActive()) {
+        if (!medicalSpecialty.active()) {
             throw new BusinessException("La especialidad médica seleccionada no está activa");
         }
 
         // Create and save lead manually
-        Lead lead = new Lead();
-        lead.setReceptionistName(request.getReceptionistName());
-        lead.setClientName(request.getClientName());
-        lead.setDni(request.getDni());
-        lead.setMonthlyIncome(request.getMonthlyIncome());
-        lead.setTreatmentCost(request.getTreatmentCost());
-        lead.setPhone(request.getPhone());
-        lead.setEmail(request.getEmail());
-        lead.setClinic(clinic);
-        lead.setMedicalSpecialty(medicalSpecialty);
-        lead.setStatus(LeadStatus.NUEVO);
-        lead.setOrigin("WEB");
+        Lead lead = newLead(request, clinic.id(), medicalSpecialty.id(), "WEB");
 
         Lead savedLead = leadRepository.save(lead);
+        leadStatsRepository.addAll(List.of(savedLead));
+        leadStatusEventWriter.created(List.of(savedLead));
+        leadOutboxWriter.created(List.of(savedLead));
+        leadChangePublisher.created(List.of(savedLead));
+        leadMetrics.leadCreated(savedLead);
         log.info("Lead created successfully with ID: {}", savedLead.getId());
 
-        return mapToDetailResponse(savedLead);
+        return toDetailResponse(savedLead);
+    }
+
+    @Override
+    @Transactional
+    public LeadBatchResponse createLeads(List<CreateLeadRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("El lote de leads está vacío");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new BusinessException("El lote excede el máximo de " + maxBatchSize + " leads");
+        }
+        log.debug("Creating batch of {} leads", requests.size());
+
+        // Resolve every DNI already registered with one set-based query
+        Set<String> dnis = requests.stream()
+                .filter(Objects::nonNull)
+                .map(CreateLeadRequest::getDni)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> existingDnis = dnis.isEmpty()
+                ? Set.of()
+                : new HashSet<>(leadRepository.findExistingDnis(dnis));
+
+        Set<String> batchDnis = new HashSet<>();
+        List<LeadBatchItemResult> results = new ArrayList<>(requests.size());
+        List<Lead> accepted = new ArrayList<>();
+        List<LeadBatchItemResult> acceptedResults = new ArrayList<>();
+
+        for (int index = 0; index < requests.size(); index++) {
+            CreateLeadRequest request = requests.get(index);
+            List<String> errors = new ArrayList<>();
+            Lead lead = validateBatchItem(request, existingDnis, batchDnis, errors);
+
+            LeadBatchItemResult result = LeadBatchItemResult.builder()
+                    .index(index)
+                    .dni(request != null ? request.getDni() : null)
+                    .build();
+            if (lead == null) {
+                result.setStatus(LeadBatchItemResult.Status.REJECTED);
+                result.setErrors(errors);
+            } else {
+                result.setStatus(LeadBatchItemResult.Status.CREATED);
+                accepted.add(lead);
+                acceptedResults.add(result);
+            }
+            results.add(result);
+        }
+
+        if (!accepted.isEmpty()) {
+            leadBatchRepository.insertAll(accepted);
+            leadStatsRepository.addAll(accepted);
+            leadStatusEventWriter.created(accepted);
+            leadOutboxWriter.created(accepted);
+            leadChangePublisher.created(accepted);
+            for (int i = 0; i < accepted.size(); i++) {
+                acceptedResults.get(i).setId(accepted.get(i).getId());
+                leadMetrics.leadCreated(accepted.get(i));
+            }
+        }
+
+        log.info("Lead batch processed - total: {}, created: {}, rejected: {}",
+                 requests.size(), accepted.size(), requests.size() - accepted.size());
+
+        return LeadBatchResponse.builder()
+                .total(requests.size())
+                .created(accepted.size())
+                .rejected(requests.size() - accepted.size())
+                .results(results)
+                .build();
     }
 
     @Override
@@ -93,12 +217,48 @@ public class LeadServiceImpl implements LeadService {
         log.debug("Fetching leads with filters - status: {}, clinicId: {}, startDate: {}, endDate: {}", 
                   status, clinicId, startDate, endDate);
 
-        Page<Lead> leads = leadRepository.findAllWithFilters(status, clinicId, startDate, endDate, pageable);
-        
-        return leads.map(this::mapToResponse);
+        return leadRepository.findAllWithFilters(status, clinicId, startDate, endDate, pageable);
     }
 
     @Override
+    public CursorPageResponse<LeadResponse> getLeadsByCursor(LeadStatus status,
+                                                             Long clinicId,
+                                                             LocalDateTime startDate,
+                                                             LocalDateTime endDate,
+                                                             String cursor,
+                                                             int size) {
+        log.debug("Fetching keyset page of leads - status: {}, clinicId: {}, cursor: {}, size: {}",
+                  status, clinicId, cursor, size);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        LeadCursor after = LeadCursor.decode(cursor);
+
+        // Fetch one extra row to know whether another page exists without counting
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<LeadResponse> leads = after == null
+                ? leadRepository.findFirstKeysetPage(status, clinicId, startDate, endDate, window)
+                : leadRepository.findKeysetPageAfter(status, clinicId, startDate, endDate,
+                                                     after.createdAt(), after.id(), window);
+
+        boolean hasNext = leads.size() > pageSize;
+        List<LeadResponse> pageLeads = hasNext ? leads.subList(0, pageSize) : leads;
+
+        String nextCursor = null;
+        if (hasNext) {
+            LeadResponse last = pageLeads.get(pageLeads.size() - 1);
+            nextCursor = new LeadCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPageResponse.<LeadResponse>builder()
+                .content(pageLeads)
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Cacheable(cacheNames = LEADS_CACHE, key = "#id")
     public LeadDetailResponse getLeadById(Long id) {
         log.debug("Fetching lead with ID: {}", id);
 
@@ -110,31 +270,44 @@ public class LeadServiceImpl implements LeadService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = LEADS_CACHE, key = "#id")
     public LeadDetailResponse updateLeadStatus(Long id, LeadStatus status) {
         log.debug("Updating lead {} status to: {}", id, status);
 
-        Lead lead = leadRepository.findById(id)
+        Lead lead = leadRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lead no encontrado con ID: " + id));
 
         // Validate status transition
         validateStatusTransition(lead.getStatus(), status);
 
+        LeadStatsRepository.Key statsBefore = LeadStatsRepository.Key.of(lead);
+        leadMetrics.statusChanged(lead.getStatus(), status);
+        leadStatusEventWriter.statusChanged(lead, lead.getStatus(), status);
         lead.setStatus(status);
         Lead updatedLead = leadRepository.save(lead);
+        leadStatsRepository.move(statsBefore, lead.getTreatmentCost(),
+                                 LeadStatsRepository.Key.of(updatedLead), updatedLead.getTreatmentCost());
+        leadOutboxWriter.statusChanged(updatedLead, statsBefore.status());
+        leadChangePublisher.publish(LeadEventType.LEAD_STATUS_CHANGED, updatedLead, statsBefore.status());
         
         log.info("Lead {} status updated to: {}", id, status);
 
-        return mapToDetailResponse(updatedLead);
+        return toDetailResponse(updatedLead);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = LEADS_CACHE, key = "#id")
     public LeadDetailResponse updateLead(Long id, UpdateLeadRequest request) {
         log.debug("Updating lead with ID: {}", id);
 
-        Lead lead = leadRepository.findById(id)
+        Lead lead = leadRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lead no encontrado con ID: " + id));
 
+        // Summary row and amount the lead counts towards before the update
+        LeadStatsRepository.Key statsBefore = LeadStatsRepository.Key.of(lead);
+        BigDecimal treatmentCostBefore = lead.getTreatmentCost();
+
         // Update fields only if they are provided in the request
         if (request.getReceptionistName() != null) {
             lead.setReceptionistName(request.getReceptionistName());
@@ -167,22 +340,22 @@ public class LeadServiceImpl implements LeadService {
 
         // Update clinic if provided
         if (request.getClinicId() != null) {
-            Clinic clinic = clinicRepository.findById(request.getClinicId())
+            CatalogEntry clinic = catalogService.findClinic(request.getClinicId())
                     .orElseThrow(() -> new ResourceNotFoundException("Clínica no encontrada con ID: " + request.getClinicId()));
-            if (!clinic.getActive()) {
+            if (!clinic.active()) {
                 throw new BusinessException("La clínica seleccionada no está activa");
             }
-            lead.setClinic(clinic);
+            lead.setClinic(catalogService.clinicReference(clinic.id()));
         }
 
         // Update medical specialty if provided
         if (request.getMedicalSpecialtyId() != null) {
-            MedicalSpecialty medicalSpecialty = medicalSpecialtyRepository.findById(request.getMedicalSpecialtyId())
+            CatalogEntry medicalSpecialty = catalogService.findMedicalSpecialty(request.getMedicalSpecialtyId())
                     .orElseThrow(() -> new ResourceNotFoundException("Especialidad médica no encontrada con ID: " + request.getMedicalSpecialtyId()));
-            if (!medicalSpecialty.getActive()) {
+            if (!medicalSpecialty.active()) {
                 throw new BusinessException("La especialidad médica seleccionada no está activa");
             }
-            lead.setMedicalSpecialty(medicalSpecialty);
+            lead.setMedicalSpecialty(catalogService.medicalSpecialtyReference(medicalSpecialty.id()));
         }
 
         // Update status if provided
@@ -190,6 +363,8 @@ public class LeadServiceImpl implements LeadService {
             try {
                 LeadStatus newStatus = LeadStatus.valueOf(request.getStatus().toUpperCase());
                 validateStatusTransition(lead.getStatus(), newStatus);
+                leadMetrics.statusChanged(lead.getStatus(), newStatus);
+                leadStatusEventWriter.statusChanged(lead, lead.getStatus(), newStatus);
                 lead.setStatus(newStatus);
             } catch (IllegalArgumentException e) {
                 throw new BusinessException("Estado inválido: " + request.getStatus());
@@ -197,19 +372,21 @@ public class LeadServiceImpl implements LeadService {
         }
 
         Lead updatedLead = leadRepository.save(lead);
+        leadStatsRepository.move(statsBefore, treatmentCostBefore,
+                                 LeadStatsRepository.Key.of(updatedLead), updatedLead.getTreatmentCost());
+        LeadStatus previousStatus = statsBefore.status() != updatedLead.getStatus() ? statsBefore.status() : null;
+        leadOutboxWriter.updated(updatedLead, previousStatus);
+        leadChangePublisher.publish(LeadEventType.LEAD_UPDATED, updatedLead, previousStatus);
         log.info("Lead {} updated successfully", id);
 
-        return mapToDetailResponse(updatedLead);
+        return toDetailResponse(updatedLead);
     }
 
     @Override
     public List<LeadResponse> getAllLeads() {
         log.debug("Fetching all leads without pagination");
         
-        List<Lead> leads = leadRepository.findAllOrderByCreatedAtDesc();
-        return leads.stream()
-                .map(this::mapToResponse)
-                .toList();
+        return leadRepository.findAllOrderByCreatedAtDesc();
     }
 
     @Override
@@ -220,16 +397,241 @@ public class LeadServiceImpl implements LeadService {
         log.debug("Fetching all leads with filters - status: {}, clinicId: {}, startDate: {}, endDate: {}", 
                   status, clinicId, startDate, endDate);
 
-        List<Lead> leads = leadRepository.findAllWithFiltersNoPagination(status, clinicId, startDate, endDate);
-        return leads.stream()
-                .map(this::mapToResponse)
+        return leadRepository.findAllWithFiltersNoPagination(status, clinicId, startDate, endDate);
+    }
+
+    @Override
+    public long exportLeads(LeadStatus status,
+                            Long clinicId,
+                            LocalDateTime startDate,
+                            LocalDateTime endDate,
+                            LeadExportFormat format,
+                            OutputStream output) throws IOException {
+        log.debug("Exporting leads as {} with filters - status: {}, clinicId: {}, startDate: {}, endDate: {}",
+                  format, status, clinicId, startDate, endDate);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        LeadExportWriter exportWriter = new LeadExportWriter(format, writer, objectMapper);
+        exportWriter.writeHeader();
+
+        long exported = 0;
+        try (Stream<LeadResponse> leads = leadRepository.streamAllWithFilters(status, clinicId, startDate, endDate)) {
+            Iterator<LeadResponse> iterator = leads.iterator();
+            while (iterator.hasNext()) {
+                exportWriter.writeRow(iterator.next());
+                exported++;
+
+                // Push each chunk to the client as soon as it is written
+                if (exported % EXPORT_CHUNK_SIZE == 0) {
+                    exportWriter.flush();
+                }
+            }
+        }
+        exportWriter.flush();
+
+        log.info("Exported {} leads as {}", exported, format);
+        return exported;
+    }
+
+    @Override
+    public LeadStatsResponse getLeadStats(LocalDate startDate, LocalDate endDate, Long clinicId) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusDays(29);
+        if (start.isAfter(end)) {
+            throw new BusinessException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        if (start.plusDays(MAX_STATS_DAYS).isBefore(end)) {
+            throw new BusinessException("El rango de fechas no puede superar los " + MAX_STATS_DAYS + " días");
+        }
+        log.debug("Fetching lead stats - startDate: {}, endDate: {}, clinicId: {}", start, end, clinicId);
+
+        LeadStatsResponse response = LeadStatsResponse.builder()
+                .startDate(start)
+                .endDate(end)
+                .totalTreatmentCost(BigDecimal.ZERO)
+                .byStatus(new ArrayList<>())
+                .byClinic(new ArrayList<>())
+                .bySpecialty(new ArrayList<>())
+                .byDay(new ArrayList<>())
+                .build();
+
+        for (LeadStatsRepository.Row row : leadStatsRepository.summarize(start, end, clinicId)) {
+            if (row.isTotal()) {
+                response.setTotalLeads(row.count());
+                response.setTotalTreatmentCost(row.treatmentCost());
+            } else if (row.status() != null) {
+                response.getByStatus().add(bucket(row.status().name(), row.status().getDisplayName(), row));
+            } else if (row.clinicId() != null) {
+                String name = catalogService.findClinic(row.clinicId()).map(CatalogEntry::name).orElse(null);
+                response.getByClinic().add(bucket(row.clinicId().toString(), name, row));
+            } else if (row.medicalSpecialtyId() != null) {
+                String name = catalogService.findMedicalSpecialty(row.medicalSpecialtyId())
+                        .map(CatalogEntry::name).orElse(null);
+                response.getBySpecialty().add(bucket(row.medicalSpecialtyId().toString(), name, row));
+            } else {
+                response.getByDay().add(bucket(row.day().toString(), row.day().toString(), row));
+            }
+        }
+
+        response.getByStatus().sort(Comparator.comparing(b -> LeadStatus.valueOf(b.getKey())));
+        response.getByClinic().sort(Comparator.comparingLong(LeadStatsBucket::getCount).reversed());
+        response.getBySpecialty().sort(Comparator.comparingLong(LeadStatsBucket::getCount).reversed());
+        response.getByDay().sort(Comparator.comparing(LeadStatsBucket::getKey));
+        return response;
+    }
+
+    @Override
+    public List<LeadStatusEventResponse> getLeadTimeline(Long id) {
+        log.debug("Fetching status timeline of lead {}", id);
+
+        if (!leadRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Lead no encontrado con ID: " + id);
+        }
+
+        return leadStatusEventRepository.findTimeline(id).stream()
+                .map(entry -> LeadStatusEventResponse.builder()
+                        .fromStatus(entry.fromStatus())
+                        .toStatus(entry.toStatus())
+                        .changedAt(entry.changedAt())
+                        .changedBy(entry.changedBy())
+                        .leftAt(entry.leftAt())
+                        .durationSeconds(entry.leftAt() != null
+                                ? Duration.between(entry.changedAt(), entry.leftAt()).toSeconds()
+                                : null)
+                        .build())
                 .toList();
     }
 
+    @Override
+    public List<LeadStageDurationResponse> getStageDurations(LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusDays(89);
+        if (start.isAfter(end)) {
+            throw new BusinessException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        if (start.plusDays(MAX_STATS_DAYS).isBefore(end)) {
+            throw new BusinessException("El rango de fechas no puede superar los " + MAX_STATS_DAYS + " días");
+        }
+        log.debug("Fetching stage durations - startDate: {}, endDate: {}", start, end);
+
+        return leadStatusEventRepository.findStageDurations(start.atStartOfDay(), end.plusDays(1).atStartOfDay())
+                .stream()
+                .sorted(Comparator.comparing(LeadStatusEventRepository.StageDuration::status))
+                .map(duration -> LeadStageDurationResponse.builder()
+                        .status(duration.status())
+                        .label(duration.status().getDisplayName())
+                        .completedStays(duration.stays())
+                        .averageSeconds(duration.averageSeconds())
+                        .p50Seconds(duration.p50Seconds())
+                        .p90Seconds(duration.p90Seconds())
+                        .p95Seconds(duration.p95Seconds())
+                        .p99Seconds(duration.p99Seconds())
+                        .build())
+                .toList();
+    }
+
+    private static LeadStatsBucket bucket(String key, String label, LeadStatsRepository.Row row) {
+        return LeadStatsBucket.builder()
+                .key(key)
+                .label(label)
+                .count(row.count())
+                .treatmentCost(row.treatmentCost())
+                .build();
+    }
+
+    /**
+     * Validates one item of a lead batch, collecting every problem instead of failing on the first.
+     * Returns the lead ready to insert, or null when the item must be rejected.
+     */
+    private Lead validateBatchItem(CreateLeadRequest request,
+                                   Set<String> existingDnis,
+                                   Set<String> batchDnis,
+                                   List<String> errors) {
+        if (request == null) {
+            errors.add("El lead no puede ser nulo");
+            return null;
+        }
+
+        for (ConstraintViolation<CreateLeadRequest> violation : validator.validate(request)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+
+        String dni = request.getDni();
+        // True only when this item claimed the DNI; an earlier item's claim must survive this item's rejection
+        boolean claimedDni = false;
+        if (dni != null) {
+            if (existingDnis.contains(dni)) {
+                errors.add("Ya existe un lead con el DNI: " + dni);
+            } else if (batchDnis.add(dni)) {
+                claimedDni = true;
+            } else {
+                errors.add("DNI duplicado dentro del lote: " + dni);
+            }
+        }
+
+        CatalogEntry clinic = null;
+        if (request.getClinicId() != null) {
+            clinic = catalogService.findClinic(request.getClinicId()).orElse(null);
+            if (clinic == null) {
+                errors.add("Clínica no encontrada con ID: " + request.getClinicId());
+            } else if (!clinic.active()) {
+                errors.add("La clínica seleccionada no está activa");
+            }
+        }
+
+        CatalogEntry medicalSpecialty = null;
+        if (request.getMedicalSpecialtyId() != null) {
+            medicalSpecialty = catalogService.findMedicalSpecialty(request.getMedicalSpecialtyId()).orElse(null);
+            if (medicalSpecialty == null) {
+                errors.add("Especialidad médica no encontrada con ID: " + request.getMedicalSpecialtyId());
+            } else if (!medicalSpecialty.active()) {
+                errors.add("La especialidad médica seleccionada no está activa");
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            // A rejected item must not block a later item with the same DNI
+            if (claimedDni) {
+                batchDnis.remove(dni);
+            }
+            return null;
+        }
+        return newLead(request, clinic.id(), medicalSpecialty.id(), "BATCH");
+    }
+
+    /**
+     * Builds a new lead linked to its clinic and specialty by reference, without loading them.
+     */
+    private Lead newLead(CreateLeadRequest request, Long clinicId, Long medicalSpecialtyId, String origin) {
+        Lead lead = new Lead();
+        lead.setReceptionistName(request.getReceptionistName());
+        lead.setClientName(request.getClientName());
+        lead.setDni(request.getDni());
+        lead.setMonthlyIncome(request.getMonthlyIncome());
+        lead.setTreatmentCost(request.getTreatmentCost());
+        lead.setPhone(request.getPhone());
+        lead.setEmail(request.getEmail());
+        lead.setClinic(catalogService.clinicReference(clinicId));
+        lead.setMedicalSpecialty(catalogService.medicalSpecialtyReference(medicalSpecialtyId));
+        lead.setStatus(LeadStatus.NUEVO);
+        lead.setOrigin(origin);
+        return lead;
+    }
+
+    /**
+     * Maps a lead on the write path, where its clinic and specialty are references:
+     * the names come from the catalog cache instead of initializing the proxies.
+     */
+    private LeadDetailResponse toDetailResponse(Lead lead) {
+        return mapToDetailResponse(lead,
+                catalogService.findClinic(lead.getClinic().getId()).map(CatalogEntry::name).orElse(null),
+                catalogService.findMedicalSpecialty(lead.getMedicalSpecialty().getId()).map(CatalogEntry::name).orElse(null));
+    }
+
     /**
      * Validates if the status transition is allowed.
      */
-    private void validateStatusTransition(LeadStatus currentStatus, LeadStatus newStatus) {
+    static void validateStatusTransition(LeadStatus currentStatus, LeadStatus newStatus) {
         // Business rule: Cannot move from RECHAZADO or DESEMBOLSADO to any other status
         if ((currentStatus == LeadStatus.RECHAZADO || currentStatus == LeadStatus.DESEMBOLSADO) 
             && currentStatus != newStatus) {
@@ -242,21 +644,13 @@ public class LeadServiceImpl implements LeadService {
     }
 
     // Manual mapping methods
-    private LeadResponse mapToResponse(Lead lead) {
-        LeadResponse response = new LeadResponse();
-        response.setId(lead.getId());
-        response.setClientName(lead.getClientName());
-        response.setDni(lead.getDni());
-        response.setClinicName(lead.getClinic().getName());
-        response.setMedicalSpecialtyName(lead.getMedicalSpecialty().getName());
-        response.setTreatmentCost(lead.getTreatmentCost());
-        response.setPhone(lead.getPhone());
-        response.setStatus(lead.getStatus());
-        response.setCreatedAt(lead.getCreatedAt());
-        return response;
+    // List views (LeadResponse) are projected directly by LeadRepository queries
+    // Package-private and static so the JMH benchmarks can call them directly
+    static LeadDetailResponse mapToDetailResponse(Lead lead) {
+        return mapToDetailResponse(lead, lead.getClinic().getName(), lead.getMedicalSpecialty().getName());
     }
 
-    private LeadDetailResponse mapToDetailResponse(Lead lead) {
+    static LeadDetailResponse mapToDetailResponse(Lead lead, String clinicName, String medicalSpecialtyName) {
         LeadDetailResponse response = new LeadDetailResponse();
         response.setId(lead.getId());
         response.setReceptionistName(lead.getReceptionistName());
@@ -267,9 +661,9 @@ public class LeadServiceImpl implements LeadService {
         response.setMonthlyIncome(lead.getMonthlyIncome());
         response.setTreatmentCost(lead.getTreatmentCost());
         response.setClinicId(lead.getClinic().getId());
-        response.setClinicName(lead.getClinic().getName());
+        response.setClinicName(clinicName);
         response.setMedicalSpecialtyId(lead.getMedicalSpecialty().getId());
-        response.setMedicalSpecialtyName(lead.getMedicalSpecialty().getName());
+        response.setMedicalSpecialtyName(medicalSpecialtyName);
         response.setStatus(lead.getStatus());
         response.setOrigin(lead.getOrigin());
         response.setCreatedAt(lead.getCreatedAt());
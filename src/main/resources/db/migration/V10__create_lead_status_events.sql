@@ -0,0 +1,34 @@
+-- Append-only history of lead status transitions
+-- V10__create_lead_status_events.sql
+
+-- One row per transition, including the initial NUEVO on creation (from_status NULL).
+-- Written by LeadStatusEventWriter in the same transaction as the lead change
+CREATE TABLE IF NOT EXISTS lead_status_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    lead_id BIGINT NOT NULL,
+    from_status VARCHAR(50),
+    to_status VARCHAR(50) NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+    changed_by VARCHAR(100) NOT NULL DEFAULT 'SYSTEM'
+);
+
+-- Per-lead timeline and "next event of this lead" lookups
+CREATE INDEX IF NOT EXISTS idx_lead_status_events_lead ON lead_status_events(lead_id, changed_at, id);
+
+-- Rows arrive roughly in changed_at order, so a BRIN index serves range scans at a tiny size
+CREATE INDEX IF NOT EXISTS idx_lead_status_events_changed_at ON lead_status_events USING BRIN (changed_at);
+
+CREATE OR REPLACE FUNCTION reject_lead_status_event_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'lead_status_events is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER lead_status_events_append_only BEFORE UPDATE OR DELETE ON lead_status_events
+    FOR EACH ROW EXECUTE FUNCTION reject_lead_status_event_change();
+
+-- Existing leads start their history at their current status
+INSERT INTO lead_status_events (lead_id, from_status, to_status, changed_at, changed_by)
+SELECT id, NULL, status, created_at, created_by
+FROM leads;
@@ -0,0 +1,21 @@
+-- Transactional outbox of lead events for downstream systems
+-- V11__create_lead_outbox.sql
+
+-- Rows are inserted in the same transaction as the lead change and delivered by LeadOutboxRelay.
+-- published_at stays NULL until the configured sink accepts the event
+CREATE TABLE IF NOT EXISTS lead_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    lead_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000)
+);
+
+-- The relay claims pending rows in id order; only the pending tail is indexed
+CREATE INDEX IF NOT EXISTS idx_lead_outbox_pending ON lead_outbox(id) WHERE published_at IS NULL;
+
+-- Purge of delivered rows past the retention
+CREATE INDEX IF NOT EXISTS idx_lead_outbox_published_at ON lead_outbox(published_at) WHERE published_at IS NOT NULL;
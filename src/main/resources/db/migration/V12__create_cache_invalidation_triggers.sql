@@ -0,0 +1,52 @@
+-- NOTIFY on writes so every node can evict its in-memory caches
+-- V12__create_cache_invalidation_triggers.sql
+
+-- Payload format: '<table>:*' (evict everything cached from the table) or '<table>:<id>,<id>,...'.
+-- Notifications are delivered at commit and identical payloads of one transaction are sent once
+
+-- Catalogs are cached as whole lists, so one notification per statement is enough
+CREATE OR REPLACE FUNCTION notify_catalog_cache_invalidation()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('kiwipay_cache_invalidation', TG_TABLE_NAME || ':*');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER clinics_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON clinics
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_catalog_cache_invalidation();
+
+CREATE TRIGGER medical_specialties_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON medical_specialties
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_catalog_cache_invalidation();
+
+-- Leads are cached by id: one notification per statement listing the changed ids, or '*' when the
+-- statement touched more rows than fit in a payload (8000 bytes). Inserts need no eviction.
+-- Statement triggers on the partitioned parent see the rows of every partition
+CREATE OR REPLACE FUNCTION notify_lead_cache_invalidation()
+RETURNS TRIGGER AS $$
+DECLARE
+    ids TEXT;
+BEGIN
+    SELECT CASE WHEN COUNT(*) > 300 THEN '*' ELSE string_agg(DISTINCT id::text, ',') END
+    INTO ids
+    FROM changed_leads;
+
+    IF ids IS NOT NULL THEN
+        PERFORM pg_notify('kiwipay_cache_invalidation', 'leads:' || ids);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables allow a single event per trigger
+CREATE TRIGGER leads_cache_invalidation_update
+    AFTER UPDATE ON leads
+    REFERENCING OLD TABLE AS changed_leads
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_cache_invalidation();
+
+CREATE TRIGGER leads_cache_invalidation_delete
+    AFTER DELETE ON leads
+    REFERENCING OLD TABLE AS changed_leads
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_cache_invalidation();
@@ -0,0 +1,15 @@
+-- Retry backoff and dead-lettering for the lead outbox
+-- V13__add_lead_outbox_retry_state.sql
+
+-- A failed row is not claimed again before next_attempt_at (exponential backoff); after
+-- max-attempts failures it is dead-lettered and never claimed again, so it cannot block the rows behind it
+ALTER TABLE lead_outbox ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE lead_outbox ADD COLUMN IF NOT EXISTS dead_lettered_at TIMESTAMP;
+
+DROP INDEX IF EXISTS idx_lead_outbox_pending;
+CREATE INDEX IF NOT EXISTS idx_lead_outbox_pending ON lead_outbox(id)
+    WHERE published_at IS NULL AND dead_lettered_at IS NULL;
+
+-- Dead letters are kept (never purged) until an operator replays or deletes them
+CREATE INDEX IF NOT EXISTS idx_lead_outbox_dead_lettered_at ON lead_outbox(dead_lettered_at)
+    WHERE dead_lettered_at IS NOT NULL;
@@ -0,0 +1,28 @@
+-- Shared state of the background Excel imports
+-- V14__create_excel_import_jobs.sql
+
+-- The node running an import writes its progress here every few seconds, so any replica can
+-- answer GET /api/v1/populate/jobs/{jobId}. heartbeat_at stops moving when that node dies, and the
+-- job is then marked FAILED instead of staying RUNNING forever
+CREATE TABLE IF NOT EXISTS excel_import_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    rows_read BIGINT NOT NULL DEFAULT 0,
+    rows_inserted BIGINT NOT NULL DEFAULT 0,
+    rows_skipped BIGINT NOT NULL DEFAULT 0,
+    rows_failed BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMPTZ NOT NULL,
+    started_at TIMESTAMPTZ,
+    finished_at TIMESTAMPTZ,
+    error_message VARCHAR(1000),
+    heartbeat_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Sweep of jobs whose node stopped reporting
+CREATE INDEX IF NOT EXISTS idx_excel_import_jobs_active ON excel_import_jobs(heartbeat_at)
+    WHERE status IN ('PENDING', 'RUNNING');
+
+-- Purge of finished jobs past the retention
+CREATE INDEX IF NOT EXISTS idx_excel_import_jobs_finished_at ON excel_import_jobs(finished_at)
+    WHERE finished_at IS NOT NULL;
@@ -0,0 +1,5 @@
+-- Composite index for keyset (cursor) pagination on leads
+-- V3__add_leads_keyset_index.sql
+
+-- Matches ORDER BY created_at DESC, id DESC so every cursor page reads a bounded index range
+CREATE INDEX IF NOT EXISTS idx_leads_created_at_id ON leads(created_at DESC, id DESC);
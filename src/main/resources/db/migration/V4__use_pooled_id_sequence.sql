@@ -0,0 +1,21 @@
+-- Replace the per-table BIGSERIAL sequences with a shared sequence allocated in blocks
+-- V4__use_pooled_id_sequence.sql
+
+-- INCREMENT BY must match BaseEntity.ID_ALLOCATION_SIZE (Hibernate pooled-lo optimizer)
+CREATE SEQUENCE IF NOT EXISTS kiwipay_id_seq INCREMENT BY 50;
+
+-- Start above every id already issued by the old sequences
+SELECT setval('kiwipay_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM clinics),
+                       (SELECT COALESCE(MAX(id), 0) FROM medical_specialties),
+                       (SELECT COALESCE(MAX(id), 0) FROM leads)) + 1,
+              false);
+
+-- Keep a default for rows inserted outside Hibernate
+ALTER TABLE clinics ALTER COLUMN id SET DEFAULT nextval('kiwipay_id_seq');
+ALTER TABLE medical_specialties ALTER COLUMN id SET DEFAULT nextval('kiwipay_id_seq');
+ALTER TABLE leads ALTER COLUMN id SET DEFAULT nextval('kiwipay_id_seq');
+
+DROP SEQUENCE IF EXISTS clinics_id_seq;
+DROP SEQUENCE IF EXISTS medical_specialties_id_seq;
+DROP SEQUENCE IF EXISTS leads_id_seq;
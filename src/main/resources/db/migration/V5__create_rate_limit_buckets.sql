@@ -0,0 +1,50 @@
+-- Shared token buckets for rate limiting across replicas
+-- V5__create_rate_limit_buckets.sql
+
+-- UNLOGGED: bucket state is disposable, losing it on a crash only refills the buckets
+CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key VARCHAR(255) PRIMARY KEY,
+    tokens DOUBLE PRECISION NOT NULL,
+    refilled_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_refilled_at ON rate_limit_buckets(refilled_at);
+
+-- Refills a bucket from the elapsed time and takes up to p_requested tokens, atomically under a row lock.
+-- Uses the database clock so every replica computes the same refill.
+CREATE OR REPLACE FUNCTION rate_limit_take(p_key VARCHAR,
+                                           p_capacity BIGINT,
+                                           p_refill_per_second DOUBLE PRECISION,
+                                           p_requested BIGINT)
+RETURNS TABLE (granted BIGINT, remaining BIGINT, seconds_to_wait DOUBLE PRECISION)
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_now TIMESTAMPTZ := clock_timestamp();
+    v_tokens DOUBLE PRECISION;
+    v_refilled_at TIMESTAMPTZ;
+    v_granted BIGINT;
+BEGIN
+    INSERT INTO rate_limit_buckets (bucket_key, tokens, refilled_at)
+    VALUES (p_key, p_capacity, v_now)
+    ON CONFLICT (bucket_key) DO NOTHING;
+
+    SELECT b.tokens, b.refilled_at INTO v_tokens, v_refilled_at
+    FROM rate_limit_buckets b
+    WHERE b.bucket_key = p_key
+    FOR UPDATE;
+
+    v_tokens := LEAST(p_capacity::DOUBLE PRECISION,
+                      v_tokens + GREATEST(0, EXTRACT(EPOCH FROM (v_now - v_refilled_at))) * p_refill_per_second);
+    v_granted := LEAST(FLOOR(v_tokens)::BIGINT, p_requested);
+    v_tokens := v_tokens - v_granted;
+
+    UPDATE rate_limit_buckets
+    SET tokens = v_tokens, refilled_at = v_now
+    WHERE bucket_key = p_key;
+
+    granted := v_granted;
+    remaining := FLOOR(v_tokens)::BIGINT;
+    seconds_to_wait := CASE WHEN v_granted > 0 THEN 0 ELSE (1 - v_tokens) / p_refill_per_second END;
+    RETURN NEXT;
+END;
+$$;
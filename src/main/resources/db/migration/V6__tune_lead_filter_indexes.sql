@@ -0,0 +1,22 @@
+-- Composite and partial indexes matching the lead filter query shapes
+-- V6__tune_lead_filter_indexes.sql
+
+-- Filters are equality on clinic_id and/or status plus a created_at range, sorted by
+-- created_at DESC, id DESC: equality columns first, then the sort keys, so a page is a
+-- bounded index range read with no Sort node
+CREATE INDEX IF NOT EXISTS idx_leads_clinic_created_at ON leads(clinic_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_leads_status_created_at ON leads(status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_leads_clinic_status_created_at ON leads(clinic_id, status, created_at DESC, id DESC);
+
+-- Duplicate DNI checks only look up non-null values; leads without DNI skip the index entirely
+CREATE INDEX IF NOT EXISTS idx_leads_dni_not_null ON leads(dni) WHERE dni IS NOT NULL;
+DROP INDEX IF EXISTS idx_leads_dni;
+
+-- Audit indexes are never queried and only add write amplification
+DROP INDEX IF EXISTS idx_leads_created_by;
+DROP INDEX IF EXISTS idx_leads_updated_by;
+
+-- Covered by the composites above (leading column) and by idx_leads_created_at_id (V3)
+DROP INDEX IF EXISTS idx_leads_clinic_id;
+DROP INDEX IF EXISTS idx_leads_status;
+DROP INDEX IF EXISTS idx_leads_created_at;
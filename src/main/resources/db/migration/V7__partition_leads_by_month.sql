@@ -0,0 +1,128 @@
+-- Monthly range partitioning of leads on created_at
+-- V7__partition_leads_by_month.sql
+
+-- The existing rows are copied once into the new partitioned table. Queries bounded by
+-- created_at then read only the matching months, and retention detaches whole
+-- partitions instead of running a massive DELETE.
+--
+-- Lock: Flyway runs this file in one transaction, and the RENAME below takes an ACCESS
+-- EXCLUSIVE lock on leads that is held until the commit. Every read and write of leads
+-- waits for the whole copy, the six index builds and the ANALYZE, i.e. roughly the time
+-- of a full table copy plus reindex. Apply it in a maintenance window on large tables.
+
+CREATE SCHEMA IF NOT EXISTS leads_archive;
+
+ALTER TABLE leads RENAME TO leads_legacy;
+
+CREATE TABLE leads (LIKE leads_legacy INCLUDING DEFAULTS INCLUDING COMMENTS)
+    PARTITION BY RANGE (created_at);
+
+-- A partitioned table's primary key must include the partition key
+ALTER TABLE leads ADD CONSTRAINT leads_pkey PRIMARY KEY (id, created_at);
+
+-- Rows outside every monthly partition (e.g. backdated imports) land here instead of failing
+CREATE TABLE leads_default PARTITION OF leads DEFAULT;
+
+-- Creates the partition for the month containing p_month, if missing; returns its name.
+-- Rows of that month already in leads_default would make a plain CREATE ... PARTITION OF
+-- fail, so the month is built as a standalone table, its rows are moved out of the default
+-- partition, and it is then attached. Writes routed to leads_default wait for the call;
+-- the CHECK constraint lets ATTACH skip re-validating the new table.
+CREATE OR REPLACE FUNCTION leads_create_month_partition(p_month DATE)
+RETURNS TEXT AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::date;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    v_name TEXT := 'leads_' || to_char(v_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN v_name;
+    END IF;
+
+    LOCK TABLE leads_default IN SHARE ROW EXCLUSIVE MODE;
+
+    EXECUTE format('CREATE TABLE %I (LIKE leads INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (created_at IS NOT NULL AND created_at >= %L AND created_at < %L)',
+                   v_name, v_name || '_bounds', v_start, v_end);
+    EXECUTE format('WITH moved AS (DELETE FROM leads_default WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   v_start, v_end, v_name);
+    EXECUTE format('ALTER TABLE leads ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_start, v_end);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', v_name, v_name || '_bounds');
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creates every missing monthly partition between p_from and p_to (inclusive); returns how many were created
+CREATE OR REPLACE FUNCTION leads_create_partitions(p_from DATE, p_to DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    v_month DATE := date_trunc('month', p_from)::date;
+    v_created INTEGER := 0;
+BEGIN
+    -- Serialises maintenance across application replicas
+    PERFORM pg_advisory_xact_lock(hashtext('leads_partitions'));
+    WHILE v_month <= p_to LOOP
+        IF to_regclass('leads_' || to_char(v_month, 'YYYY_MM')) IS NULL THEN
+            PERFORM leads_create_month_partition(v_month);
+            v_created := v_created + 1;
+        END IF;
+        v_month := (v_month + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN v_created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches every monthly partition that ends on or before p_before. Detached partitions
+-- are moved to the leads_archive schema, or dropped when p_drop is true; returns their names
+CREATE OR REPLACE FUNCTION leads_archive_partitions(p_before DATE, p_drop BOOLEAN)
+RETURNS SETOF TEXT AS $$
+DECLARE
+    v_partition TEXT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('leads_partitions'));
+    FOR v_partition IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'leads'::regclass
+          AND c.relname ~ '^leads_[0-9]{4}_[0-9]{2}$'
+          AND (to_date(substr(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month')::date <= p_before
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE leads DETACH PARTITION %I', v_partition);
+        IF p_drop THEN
+            EXECUTE format('DROP TABLE %I', v_partition);
+        ELSE
+            EXECUTE format('ALTER TABLE %I SET SCHEMA leads_archive', v_partition);
+        END IF;
+        RETURN NEXT v_partition;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for the existing data plus the next three months
+SELECT leads_create_partitions(
+    COALESCE((SELECT min(created_at) FROM leads_legacy), CURRENT_DATE)::date,
+    (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO leads SELECT * FROM leads_legacy;
+
+DROP TABLE leads_legacy;
+
+-- Constraints, indexes and triggers are defined on the parent and cascade to every partition
+ALTER TABLE leads ADD CONSTRAINT fk_leads_clinic FOREIGN KEY (clinic_id) REFERENCES clinics(id);
+ALTER TABLE leads ADD CONSTRAINT fk_leads_medical_specialty FOREIGN KEY (medical_specialty_id) REFERENCES medical_specialties(id);
+
+CREATE INDEX idx_leads_created_at_id ON leads(created_at DESC, id DESC);
+CREATE INDEX idx_leads_clinic_created_at ON leads(clinic_id, created_at DESC, id DESC);
+CREATE INDEX idx_leads_status_created_at ON leads(status, created_at DESC, id DESC);
+CREATE INDEX idx_leads_clinic_status_created_at ON leads(clinic_id, status, created_at DESC, id DESC);
+CREATE INDEX idx_leads_medical_specialty_id ON leads(medical_specialty_id);
+CREATE INDEX idx_leads_dni_not_null ON leads(dni) WHERE dni IS NOT NULL;
+
+CREATE TRIGGER update_leads_updated_at BEFORE UPDATE ON leads
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+ANALYZE leads;
@@ -0,0 +1,53 @@
+-- Conversion funnel rollups refreshed incrementally from leads.updated_at
+-- V9__create_lead_funnel_rollups.sql
+
+-- Furthest funnel stage each lead has been seen at (stage = position in LeadStatus.funnelStages()),
+-- and whether it is currently rejected. Kept so a changed lead can be moved out of its old rollup group
+CREATE TABLE IF NOT EXISTS lead_funnel_facts (
+    lead_id BIGINT PRIMARY KEY,
+    cohort_month DATE NOT NULL,
+    clinic_id BIGINT NOT NULL,
+    medical_specialty_id BIGINT NOT NULL,
+    furthest_stage SMALLINT NOT NULL,
+    rejected BOOLEAN NOT NULL
+);
+
+-- Lead counts per creation month, clinic, specialty, furthest stage and rejection;
+-- "reached stage s" is the sum over furthest_stage >= s
+CREATE TABLE IF NOT EXISTS lead_funnel_rollup (
+    cohort_month DATE NOT NULL,
+    clinic_id BIGINT NOT NULL,
+    medical_specialty_id BIGINT NOT NULL,
+    furthest_stage SMALLINT NOT NULL,
+    rejected BOOLEAN NOT NULL,
+    lead_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_lead_funnel_rollup PRIMARY KEY (cohort_month, clinic_id, medical_specialty_id, furthest_stage, rejected)
+);
+
+-- Position of the last processed lead in (updated_at, id) order
+CREATE TABLE IF NOT EXISTS lead_funnel_watermark (
+    name VARCHAR(50) PRIMARY KEY,
+    last_updated_at TIMESTAMP NOT NULL,
+    last_id BIGINT NOT NULL,
+    refreshed_at TIMESTAMP
+);
+
+INSERT INTO lead_funnel_watermark (name, last_updated_at, last_id)
+VALUES ('funnel', TIMESTAMP '1970-01-01', 0)
+ON CONFLICT (name) DO NOTHING;
+
+-- Makes the next refresh rebuild the rollups from scratch; for bulk loads with past updated_at values
+CREATE OR REPLACE FUNCTION lead_funnel_reset()
+RETURNS VOID AS $$
+BEGIN
+    LOCK TABLE lead_funnel_watermark IN EXCLUSIVE MODE;
+    DELETE FROM lead_funnel_facts;
+    DELETE FROM lead_funnel_rollup;
+    UPDATE lead_funnel_watermark
+    SET last_updated_at = TIMESTAMP '1970-01-01', last_id = 0, refreshed_at = NULL
+    WHERE name = 'funnel';
+END;
+$$ LANGUAGE plpgsql;
+
+-- Lets the refresh job read the leads changed after the watermark as an index range
+CREATE INDEX IF NOT EXISTS idx_leads_updated_at_id ON leads(updated_at, id);
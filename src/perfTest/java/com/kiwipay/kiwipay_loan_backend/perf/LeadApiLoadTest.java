@@ -0,0 +1,231 @@
+package com.kiwipay.kiwipay_loan_backend.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test of the lead API against a seeded PostgreSQL in a container.
+ * Scenarios are create, batch, list, filter, detail, stats and export, each run at a fixed
+ * concurrency; p50/p95/p99 latency and throughput are written to build/reports/perf
+ * and p95/p99 are checked against perf-baseline.json. The report also gives the lead
+ * ingestion rate of batch against create (batchSpeedup).
+ *
+ * Run with ./gradlew perfTest. Tunables are system properties passed through Gradle:
+ * perf.leads, perf.concurrency, perf.requests, perf.warmup, perf.export.requests,
+ * perf.batch.requests and perf.batch.size size the run; perf.virtualThreads=true serves the
+ * requests on virtual threads (needs Gradle on a Java 21 JVM); perf.report overrides the report
+ * path; perf.postgres-image picks the container image; perf.updateBaseline=true rewrites the
+ * baseline from the current run, with perf.machine naming the reference machine in the file.
+ * Without a recorded baseline the run fails.
+ *
+ * Platform and virtual threads are compared by running the suite once per mode at a concurrency
+ * above the Hikari pool, e.g. -Dperf.concurrency=200; each mode writes its own report
+ * (perf-results-platform.json, perf-results-virtual.json). Offline runs need the postgres image
+ * already present in the local Docker cache.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"dev", "perf"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LeadApiLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadApiLoadTest.class);
+
+    private static final int CLINICS = 50;
+    private static final int SPECIALTIES = 40;
+    private static final String[] STATUSES = {"NUEVO", "CONTACTADO", "EN_EVALUACION", "APROBADO", "RECHAZADO"};
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+            System.getProperty("perf.postgres-image", "postgres:16-alpine"))
+            .withCommand("postgres", "-c", "shared_buffers=256MB", "-c", "max_connections=200");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.threads.virtual.enabled", () -> Boolean.getBoolean("perf.virtualThreads"));
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final LoadDriver driver = new LoadDriver();
+
+    private final int leads = Integer.getInteger("perf.leads", 1_000_000);
+    private final int concurrency = Integer.getInteger("perf.concurrency", 16);
+    private final int requests = Integer.getInteger("perf.requests", 2_000);
+    private final int warmup = Integer.getInteger("perf.warmup", 200);
+    private final int exportRequests = Integer.getInteger("perf.export.requests", 20);
+    private final int batchRequests = Integer.getInteger("perf.batch.requests", 100);
+    private final int batchSize = Integer.getInteger("perf.batch.size", 100);
+    private final boolean virtualThreads = Boolean.getBoolean("perf.virtualThreads");
+
+    @BeforeAll
+    void seed() {
+        assertTrue(!virtualThreads || Runtime.version().feature() >= 21,
+                "perf.virtualThreads=true needs a Java 21 JVM; this one is " + Runtime.version());
+        long start = System.nanoTime();
+        new PerfDataSeeder(jdbcTemplate).seed(CLINICS, SPECIALTIES, leads);
+        log.info("Seeded {} leads in {} s", leads, Duration.ofNanos(System.nanoTime() - start).toSeconds());
+    }
+
+    @Test
+    void leadApiStaysWithinBaseline() throws Exception {
+        long firstLeadId = CLINICS + SPECIALTIES + 1;
+        String recentWindow = "&startDate=" + LocalDateTime.now().minusDays(7).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+
+        List<ScenarioResult> results = new ArrayList<>();
+
+        results.add(driver.run("create", concurrency, warmup, requests, 201, i -> post("/api/v1/leads", createBody(i))));
+
+        results.add(driver.run("batch", concurrency, Math.min(warmup, 10), batchRequests, 200,
+                i -> post("/api/v1/leads/batch", batchBody(i))));
+
+        results.add(driver.run("list", concurrency, warmup, requests, 200,
+                i -> get("/api/v1/leads?page=" + (i % 50) + "&size=20")));
+
+        results.add(driver.run("filter", concurrency, warmup, requests, 200,
+                i -> get("/api/v1/leads?status=" + STATUSES[i % STATUSES.length]
+                        + "&clinicId=" + (1 + i % CLINICS) + "&size=20")));
+
+        results.add(driver.run("detail", concurrency, warmup, requests, 200,
+                i -> get("/api/v1/leads/" + (firstLeadId + Math.floorMod(i * 7919L, leads)))));
+
+        results.add(driver.run("stats", concurrency, warmup, requests, 200,
+                i -> get("/api/v1/leads/stats" + (i % 2 == 0 ? "" : "?clinicId=" + (1 + i % CLINICS)))));
+
+        results.add(driver.run("export", Math.min(concurrency, 4), Math.min(warmup, 2), exportRequests, 200,
+                i -> get("/api/v1/leads/export?clinicId=" + (1 + i % CLINICS) + recentWindow)));
+
+        log.info("Results with {} threads:", threadMode());
+        results.forEach(result -> log.info("{}", result));
+        double batchSpeedup = batchSpeedup(results);
+        log.info("Batch ingestion: {} leads/request, {}x the lead throughput of single creates",
+                 batchSize, String.format("%.1f", batchSpeedup));
+        writeReport(results, batchSpeedup);
+
+        PerfBaseline baseline = PerfBaseline.load(objectMapper);
+        if (Boolean.getBoolean("perf.updateBaseline")) {
+            baseline.write(objectMapper, results, leads, concurrency, virtualThreads,
+                    Path.of("src/perfTest/resources/perf-baseline.json"));
+            return;
+        }
+        assertTrue(baseline.isMeasured(), "perf-baseline.json holds no measured values; record them on the "
+                + "reference machine with -Dperf.updateBaseline=true -Dperf.machine=<description>");
+        List<String> regressions = baseline.regressions(results, leads, concurrency, virtualThreads);
+        assertTrue(regressions.isEmpty(), "Latency regressed past baseline:\n" + String.join("\n", regressions));
+    }
+
+    /**
+     * Leads ingested per second by the batch endpoint over leads per second of single creates.
+     */
+    private double batchSpeedup(List<ScenarioResult> results) {
+        double create = throughput(results, "create");
+        return create == 0 ? 0 : throughput(results, "batch") * batchSize / create;
+    }
+
+    private static double throughput(List<ScenarioResult> results, String name) {
+        return results.stream()
+                .filter(result -> result.name().equals(name))
+                .mapToDouble(ScenarioResult::throughputPerSecond)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private void writeReport(List<ScenarioResult> results, double batchSpeedup) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("leads", leads);
+        report.put("threads", threadMode());
+        report.put("scenarios", results);
+        report.put("batchSize", batchSize);
+        report.put("batchSpeedup", batchSpeedup);
+        Path target = Path.of(System.getProperty("perf.report",
+                "build/reports/perf/perf-results-" + threadMode() + ".json"));
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        objectMapper.writeValue(target.toFile(), report);
+    }
+
+    private String threadMode() {
+        return virtualThreads ? "virtual" : "platform";
+    }
+
+    private String createBody(int i) {
+        // DNIs above the seeded range so every create is unique
+        String dni = String.valueOf(90_000_000 + i);
+        return """
+                {"receptionistName":"Recepcion Perf","clientName":"Cliente %d","clinicId":%d,\
+                "medicalSpecialtyId":%d,"dni":"%s","monthlyIncome":3500.00,"treatmentCost":12000.00,\
+                "phone":"9%08d","email":"perf%d@example.com"}""".formatted(
+                i, 1 + i % CLINICS, CLINICS + 1 + i % SPECIALTIES, dni, i % 100_000_000, i);
+    }
+
+    private String batchBody(int i) {
+        // DNIs in their own range, clear of the seeded leads and of the single creates
+        StringBuilder body = new StringBuilder("[");
+        for (int k = 0; k < batchSize; k++) {
+            int n = i * batchSize + k;
+            if (k > 0) {
+                body.append(',');
+            }
+            body.append("""
+                    {"receptionistName":"Recepcion Perf","clientName":"Lote %d","clinicId":%d,\
+                    "medicalSpecialtyId":%d,"dni":"%s","monthlyIncome":3500.00,"treatmentCost":12000.00,\
+                    "phone":"9%08d","email":"lote%d@example.com"}""".formatted(
+                    n, 1 + n % CLINICS, CLINICS + 1 + n % SPECIALTIES, String.valueOf(80_000_000 + n),
+                    n % 100_000_000, n));
+        }
+        return body.append(']').toString();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(60)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,187 @@
+package com.kiwipay.kiwipay_loan_backend.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadResponse;
+import com.kiwipay.kiwipay_loan_backend.entity.Lead;
+import com.kiwipay.kiwipay_loan_backend.entity.LeadStatus;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the two ways of reading a page of the lead list on the seeded dataset:
+ * the JPQL constructor projection LeadRepository uses, and the entity path it replaced
+ * (fetch-join Lead, Clinic and MedicalSpecialty, then copy nine fields into LeadResponse).
+ * Both run in a read-only transaction like LeadServiceImpl, on one thread, so latency
+ * and heap allocated per page (ThreadMXBean) are directly comparable.
+ *
+ * Results go to build/reports/perf/read-paths.json and the log; nothing is asserted
+ * beyond both paths returning the same rows. Tunables: perf.readPath.leads,
+ * perf.readPath.iterations, perf.readPath.warmup, perf.readPath.pageSize.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles({"dev", "perf"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LeadReadPathComparisonTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadReadPathComparisonTest.class);
+
+    private static final int CLINICS = 50;
+    private static final int SPECIALTIES = 40;
+
+    // The list query of the entity path before the projection (user-facing order and joins)
+    private static final String ENTITY_LIST_JPQL =
+            "SELECT l FROM Lead l " +
+            "JOIN FETCH l.clinic " +
+            "JOIN FETCH l.medicalSpecialty " +
+            "WHERE l.status = :status " +
+            "ORDER BY l.createdAt DESC, l.id DESC";
+
+    private static final String ENTITY_COUNT_JPQL = "SELECT COUNT(l) FROM Lead l WHERE l.status = :status";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+            System.getProperty("perf.postgres-image", "postgres:16-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final int leads = Integer.getInteger("perf.readPath.leads", 200_000);
+    private final int iterations = Integer.getInteger("perf.readPath.iterations", 1_000);
+    private final int warmup = Integer.getInteger("perf.readPath.warmup", 200);
+    private final int pageSize = Integer.getInteger("perf.readPath.pageSize", 100);
+
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    void seed() {
+        new PerfDataSeeder(jdbcTemplate).seed(CLINICS, SPECIALTIES, leads);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void projectionAgainstEntityPath() throws Exception {
+        IntFunction<List<LeadResponse>> projection = page -> leadRepository.findAllWithFilters(
+                LeadStatus.NUEVO, null, null, null,
+                PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"))).getContent();
+        IntFunction<List<LeadResponse>> entities = page -> {
+            // Page<Lead> issued the same count query before mapping
+            entityManager.createQuery(ENTITY_COUNT_JPQL, Long.class)
+                    .setParameter("status", LeadStatus.NUEVO)
+                    .getSingleResult();
+            return entityManager.createQuery(ENTITY_LIST_JPQL, Lead.class)
+                    .setParameter("status", LeadStatus.NUEVO)
+                    .setFirstResult(page * pageSize)
+                    .setMaxResults(pageSize)
+                    .getResultList()
+                    .stream()
+                    .map(LeadReadPathComparisonTest::toResponse)
+                    .toList();
+        };
+
+        assertEquals(ids(readOnly.execute(status -> projection.apply(0))),
+                     ids(readOnly.execute(status -> entities.apply(0))),
+                     "Both read paths must return the same page");
+
+        Map<String, Object> projectionResult = measure("projection", projection);
+        Map<String, Object> entityResult = measure("entity", entities);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("leads", leads);
+        report.put("pageSize", pageSize);
+        report.put("iterations", iterations);
+        report.put("projection", projectionResult);
+        report.put("entity", entityResult);
+        Path target = Path.of(System.getProperty("perf.readPath.report", "build/reports/perf/read-paths.json"));
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        objectMapper.writeValue(target.toFile(), report);
+    }
+
+    private Map<String, Object> measure(String name, IntFunction<List<LeadResponse>> readPage) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < warmup; i++) {
+            int page = i % 50;
+            readOnly.execute(status -> readPage.apply(page));
+        }
+
+        long[] latencies = new long[iterations];
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            int page = i % 50;
+            long begin = System.nanoTime();
+            readOnly.execute(status -> readPage.apply(page));
+            latencies[i] = System.nanoTime() - begin;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedPerPage = (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / iterations;
+
+        ScenarioResult latency = ScenarioResult.of(name, 1, latencies, 0, elapsed);
+        log.info("{} allocated={} KiB/page", latency, allocatedPerPage / 1024);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("latency", latency);
+        result.put("allocatedBytesPerPage", allocatedPerPage);
+        return result;
+    }
+
+    private static List<Long> ids(List<LeadResponse> page) {
+        return page.stream().map(LeadResponse::getId).toList();
+    }
+
+    private static LeadResponse toResponse(Lead lead) {
+        return new LeadResponse(lead.getId(), lead.getClientName(), lead.getDni(),
+                lead.getClinic().getName(), lead.getMedicalSpecialty().getName(),
+                lead.getTreatmentCost(), lead.getPhone(), lead.getStatus(), lead.getCreatedAt());
+    }
+}
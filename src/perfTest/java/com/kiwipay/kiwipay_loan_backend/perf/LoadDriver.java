@@ -0,0 +1,91 @@
+package com.kiwipay.kiwipay_loan_backend.perf;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop load driver: a fixed number of workers send requests back to back
+ * until the scenario's request budget is spent, after an unmeasured warmup.
+ */
+class LoadDriver {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * Runs one scenario.
+     *
+     * @param name scenario name used in the report and the baseline
+     * @param concurrency number of concurrent workers
+     * @param warmupRequests requests sent before measuring
+     * @param requests measured requests
+     * @param expectedStatus status code counted as success
+     * @param requestFactory builds the n-th request of the scenario
+     */
+    ScenarioResult run(String name,
+                       int concurrency,
+                       int warmupRequests,
+                       int requests,
+                       int expectedStatus,
+                       IntFunction<HttpRequest> requestFactory) throws Exception {
+        execute(concurrency, warmupRequests, expectedStatus, requestFactory, new long[warmupRequests], 0);
+
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        int errors = execute(concurrency, requests, expectedStatus, requestFactory, latencies, warmupRequests);
+        long elapsed = System.nanoTime() - start;
+
+        return ScenarioResult.of(name, concurrency, latencies, errors, elapsed);
+    }
+
+    private int execute(int concurrency,
+                        int requests,
+                        int expectedStatus,
+                        IntFunction<HttpRequest> requestFactory,
+                        long[] latencies,
+                        int sequenceOffset) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>(concurrency);
+            for (int w = 0; w < concurrency; w++) {
+                futures.add(workers.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        HttpRequest request = requestFactory.apply(sequenceOffset + i);
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != expectedStatus) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return errors.get();
+    }
+}
@@ -0,0 +1,121 @@
+package com.kiwipay.kiwipay_loan_backend.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stored p95/p99 latencies per scenario, measured on the machine named in the file with the
+ * recorded lead count and concurrency. A run regresses when a percentile exceeds the stored
+ * value by more than the baseline's tolerance; runs with other settings are not comparable.
+ */
+class PerfBaseline {
+
+    static final String RESOURCE = "/perf-baseline.json";
+
+    private final JsonNode root;
+
+    private PerfBaseline(JsonNode root) {
+        this.root = root;
+    }
+
+    static PerfBaseline load(ObjectMapper objectMapper) throws IOException {
+        try (InputStream in = PerfBaseline.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing " + RESOURCE + " on the perfTest classpath");
+            }
+            return new PerfBaseline(objectMapper.readTree(in));
+        }
+    }
+
+    /**
+     * True once the file holds values recorded with perf.updateBaseline=true.
+     */
+    boolean isMeasured() {
+        return root.path("scenarios").size() > 0;
+    }
+
+    String describe() {
+        return String.format("machine=%s, recordedAt=%s, leads=%s, concurrency=%s, virtualThreads=%s",
+                root.path("machine").asText("?"), root.path("recordedAt").asText("?"),
+                root.path("leads").asText("?"), root.path("concurrency").asText("?"),
+                root.path("virtualThreads").asText("?"));
+    }
+
+    /**
+     * Returns one message per percentile above the baseline plus tolerance, or per scenario with errors.
+     * A run with another lead count, concurrency or thread mode than the baseline is reported as not comparable.
+     */
+    List<String> regressions(List<ScenarioResult> results, int leads, int concurrency, boolean virtualThreads) {
+        double tolerance = root.path("tolerance").asDouble(0.20);
+        List<String> regressions = new ArrayList<>();
+        if (root.path("leads").asInt() != leads || root.path("concurrency").asInt() != concurrency
+                || root.path("virtualThreads").asBoolean() != virtualThreads) {
+            regressions.add(String.format(
+                    "run with leads=%d concurrency=%d virtualThreads=%b is not comparable to the baseline (%s)",
+                    leads, concurrency, virtualThreads, describe()));
+            return regressions;
+        }
+        for (ScenarioResult result : results) {
+            if (result.errors() > 0) {
+                regressions.add(result.name() + ": " + result.errors() + " failed requests");
+            }
+            JsonNode scenario = root.path("scenarios").path(result.name());
+            if (scenario.isMissingNode()) {
+                continue;
+            }
+            check(regressions, result.name(), "p95", result.p95Millis(), scenario.path("p95Millis"), tolerance);
+            check(regressions, result.name(), "p99", result.p99Millis(), scenario.path("p99Millis"), tolerance);
+        }
+        return regressions;
+    }
+
+    private static void check(List<String> regressions, String scenario, String percentile,
+                              double actual, JsonNode baseline, double tolerance) {
+        if (!baseline.isNumber()) {
+            return;
+        }
+        double limit = baseline.asDouble() * (1 + tolerance);
+        if (actual > limit) {
+            regressions.add(String.format("%s: %s %.2fms exceeds baseline %.2fms (+%.0f%% = %.2fms)",
+                    scenario, percentile, actual, baseline.asDouble(), tolerance * 100, limit));
+        }
+    }
+
+    /**
+     * Writes the given results as the new baseline, keeping the current tolerance.
+     * The machine is taken from perf.machine, or described from the running JVM.
+     */
+    void write(ObjectMapper objectMapper, List<ScenarioResult> results, int leads, int concurrency,
+               boolean virtualThreads, Path target) throws IOException {
+        ObjectNode updated = objectMapper.createObjectNode();
+        updated.put("tolerance", root.path("tolerance").asDouble(0.20));
+        updated.put("machine", System.getProperty("perf.machine", describeMachine()));
+        updated.put("recordedAt", LocalDateTime.now().withNano(0).toString());
+        updated.put("leads", leads);
+        updated.put("concurrency", concurrency);
+        updated.put("virtualThreads", virtualThreads);
+        ObjectNode scenarios = updated.putObject("scenarios");
+        for (ScenarioResult result : results) {
+            ObjectNode scenario = scenarios.putObject(result.name());
+            scenario.put("p95Millis", Math.ceil(result.p95Millis()));
+            scenario.put("p99Millis", Math.ceil(result.p99Millis()));
+        }
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(target.toFile(), updated);
+    }
+
+    private static String describeMachine() {
+        return String.format("%s %s, %d CPUs, Java %s",
+                System.getProperty("os.name"), System.getProperty("os.arch"),
+                Runtime.getRuntime().availableProcessors(), System.getProperty("java.version"));
+    }
+}
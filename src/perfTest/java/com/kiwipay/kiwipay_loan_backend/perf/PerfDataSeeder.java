@@ -0,0 +1,75 @@
+package com.kiwipay.kiwipay_loan_backend.perf;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds the catalogs and a large lead table with set-based INSERT ... SELECT generate_series.
+ * Distributions are skewed like production: a few clinics and statuses take most leads
+ * and recent months are denser than old ones.
+ */
+class PerfDataSeeder {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PerfDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the catalogs and leads with explicit ids and moves the id sequence past them.
+     */
+    void seed(int clinics, int specialties, int leads) {
+        jdbcTemplate.update("""
+                INSERT INTO clinics (id, name, address, active)
+                SELECT g, 'Clinica Perf ' || g, 'Av. Perf ' || g, true
+                FROM generate_series(1, ?) g
+                """, clinics);
+
+        jdbcTemplate.update("""
+                INSERT INTO medical_specialties (id, name, category, active)
+                SELECT ? + g, 'Especialidad Perf ' || g, 'Categoria ' || (g % 8), true
+                FROM generate_series(1, ?) g
+                """, clinics, specialties);
+
+        // Monthly partitions (V7) covering the seeded created_at window
+        jdbcTemplate.queryForObject(
+                "SELECT leads_create_partitions(CURRENT_DATE - 731, (CURRENT_DATE + INTERVAL '3 months')::date)",
+                Integer.class);
+
+        jdbcTemplate.update("""
+                INSERT INTO leads (id, receptionist_name, client_name, clinic_id, medical_specialty_id, dni,
+                                   monthly_income, treatment_cost, phone, email, status, origin,
+                                   created_at, updated_at)
+                SELECT ? + g,
+                       'Recepcion ' || (g % 97),
+                       'Cliente ' || g,
+                       1 + floor(? * power(random(), 2))::int,
+                       ? + 1 + floor(? * power(random(), 1.5))::int,
+                       lpad((10000000 + g)::text, 8, '0'),
+                       round((800 + random() * 9200)::numeric, 2),
+                       round((500 + random() * 40000)::numeric, 2),
+                       lpad((900000000 + g % 99999999)::text, 9, '0'),
+                       'cliente' || g || '@example.com',
+                       CASE WHEN r < 0.40 THEN 'NUEVO'
+                            WHEN r < 0.60 THEN 'CONTACTADO'
+                            WHEN r < 0.75 THEN 'EN_EVALUACION'
+                            WHEN r < 0.83 THEN 'PRE_APROBADO'
+                            WHEN r < 0.89 THEN 'APROBADO'
+                            WHEN r < 0.97 THEN 'RECHAZADO'
+                            ELSE 'DESEMBOLSADO' END,
+                       'WEB',
+                       created_at,
+                       created_at
+                FROM (SELECT g, random() AS r,
+                             now() - power(random(), 2) * interval '730 days' AS created_at
+                      FROM generate_series(1, ?) g) s
+                """, clinics + specialties, clinics, clinics, specialties, leads);
+
+        jdbcTemplate.queryForObject("SELECT setval('kiwipay_id_seq', ?, false)", Long.class,
+                (long) clinics + specialties + leads + 1);
+        jdbcTemplate.queryForObject("SELECT lead_daily_stats_rebuild()", Long.class);
+        jdbcTemplate.execute("ANALYZE clinics");
+        jdbcTemplate.execute("ANALYZE medical_specialties");
+        jdbcTemplate.execute("ANALYZE leads");
+    }
+}
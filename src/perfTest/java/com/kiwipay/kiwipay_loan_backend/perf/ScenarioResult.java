@@ -0,0 +1,48 @@
+package com.kiwipay.kiwipay_loan_backend.perf;
+
+import java.util.Arrays;
+
+/**
+ * Latency and throughput of one load scenario.
+ */
+public record ScenarioResult(String name,
+                             int concurrency,
+                             int requests,
+                             int errors,
+                             double p50Millis,
+                             double p95Millis,
+                             double p99Millis,
+                             double maxMillis,
+                             double throughputPerSecond) {
+
+    /**
+     * Builds the result from the latency of every measured request.
+     */
+    static ScenarioResult of(String name, int concurrency, long[] latenciesNanos, int errors, long elapsedNanos) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        return new ScenarioResult(name, concurrency, sorted.length, errors,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : toMillis(sorted[sorted.length - 1]),
+                elapsedNanos == 0 ? 0 : sorted.length * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        // Nearest-rank percentile
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return toMillis(sorted[Math.max(0, rank - 1)]);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-8s c=%-3d n=%-6d err=%-4d p50=%8.2fms p95=%8.2fms p99=%8.2fms max=%8.2fms %8.1f req/s",
+                name, concurrency, requests, errors, p50Millis, p95Millis, p99Millis, maxMillis, throughputPerSecond);
+    }
+}
@@ -0,0 +1,52 @@
+package com.kiwipay.kiwipay_loan_backend.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that prefetching from the shared store never costs a client part of its configured burst.
+ */
+class PrefetchingRateLimitStoreTest {
+
+    private static final RateLimit EXPORT = new RateLimit(2, 3);
+    private static final RateLimit HIGH_RATE = new RateLimit(6_000, 200);
+
+    private final CaffeineRateLimitStore shared = new CaffeineRateLimitStore(1_000, Duration.ofMinutes(10));
+    private final List<Long> requestedBatches = new ArrayList<>();
+    private final RateLimitStore recordingShared = (key, limit, tokens) -> {
+        requestedBatches.add(tokens);
+        return shared.tryConsume(key, limit, tokens);
+    };
+    private final PrefetchingRateLimitStore store =
+            new PrefetchingRateLimitStore(recordingShared, 10, Duration.ofSeconds(1), 1_000);
+
+    @Test
+    void burstWithinCapacityPassesThrough() {
+        for (int i = 0; i < EXPORT.burstCapacity(); i++) {
+            assertThat(store.tryConsume("export:client", EXPORT, 1).isGranted()).isTrue();
+        }
+        assertThat(store.tryConsume("export:client", EXPORT, 1).isGranted()).isFalse();
+    }
+
+    @Test
+    void lowRateTierIsNotPrefetched() {
+        store.tryConsume("export:client", EXPORT, 1);
+
+        assertThat(requestedBatches).containsExactly(1L);
+        assertThat(shared.tryConsume("export:client", EXPORT, 2).granted()).isEqualTo(2);
+    }
+
+    @Test
+    void highRateTierIsPrefetchedUpToTheConfiguredBatch() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(store.tryConsume("default:client", HIGH_RATE, 1).isGranted()).isTrue();
+        }
+
+        assertThat(requestedBatches).containsExactly(10L);
+    }
+}
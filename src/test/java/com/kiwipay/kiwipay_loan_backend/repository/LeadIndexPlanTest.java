@@ -0,0 +1,236 @@
+package com.kiwipay.kiwipay_loan_backend.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN that the lead filter query shapes are served by the composite
+ * indexes from V6 as bounded index range reads, without a Sort node, and that
+ * created_at bounds prune the monthly partitions from V7.
+ * The SQL mirrors what LeadRepositoryImpl renders for each filter shape, with the
+ * bound values inlined.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LeadIndexPlanTest {
+
+    private static final String LIST_VIEW = """
+            SELECT l.id, l.client_name, l.dni, c.name, ms.name, l.treatment_cost, l.phone, l.status, l.created_at
+            FROM leads l
+            LEFT JOIN clinics c ON c.id = l.clinic_id
+            LEFT JOIN medical_specialties ms ON ms.id = l.medical_specialty_id
+            """;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.update("INSERT INTO clinics (id, name) SELECT g, 'Clinica ' || g FROM generate_series(1, 50) g");
+        jdbcTemplate.update("INSERT INTO medical_specialties (id, name) SELECT g, 'Especialidad ' || g FROM generate_series(1, 10) g");
+        jdbcTemplate.queryForObject("SELECT leads_create_partitions(DATE '2025-01-01', DATE '2025-06-01')", Integer.class);
+        jdbcTemplate.update("""
+                INSERT INTO leads (id, receptionist_name, client_name, clinic_id, medical_specialty_id, dni,
+                                   monthly_income, treatment_cost, phone, status, created_at)
+                SELECT g, 'Recepcion', 'Cliente ' || g, 1 + g % 50, 1 + g % 10,
+                       CASE WHEN g % 5 = 0 THEN NULL ELSE lpad((10000000 + g)::text, 8, '0') END,
+                       3000, 10000, '900000000',
+                       (ARRAY['NUEVO','CONTACTADO','EN_EVALUACION','PRE_APROBADO','APROBADO','RECHAZADO','DESEMBOLSADO'])[1 + g % 7],
+                       TIMESTAMP '2025-01-01' + (g || ' minutes')::interval
+                FROM generate_series(1, 200000) g
+                """);
+        // Sets the visibility map so index-only scans are possible, and refreshes statistics
+        jdbcTemplate.execute("VACUUM ANALYZE leads");
+    }
+
+    @Test
+    void clinicFilterReadsClinicIndexRangeInOrder() {
+        JsonNode plan = explain(LIST_VIEW + """
+                WHERE l.clinic_id = 7
+                  AND l.created_at >= TIMESTAMP '2025-02-01'
+                ORDER BY l.created_at DESC, l.id DESC
+                LIMIT 20
+                """);
+
+        assertThat(indexNames(plan)).contains("idx_leads_clinic_created_at");
+        assertThat(nodeTypes(plan)).doesNotContain("Sort", "Seq Scan");
+    }
+
+    @Test
+    void statusFilterReadsStatusIndexRangeInOrder() {
+        JsonNode plan = explain(LIST_VIEW + """
+                WHERE l.status = 'APROBADO'
+                ORDER BY l.created_at DESC, l.id DESC
+                LIMIT 20
+                """);
+
+        assertThat(indexNames(plan)).contains("idx_leads_status_created_at");
+        assertThat(nodeTypes(plan)).doesNotContain("Sort", "Seq Scan");
+    }
+
+    @Test
+    void clinicAndStatusFilterReadsCombinedIndexRangeInOrder() {
+        JsonNode plan = explain(LIST_VIEW + """
+                WHERE l.status = 'NUEVO'
+                  AND l.clinic_id = 7
+                  AND l.created_at BETWEEN TIMESTAMP '2025-01-15' AND TIMESTAMP '2025-03-01'
+                ORDER BY l.created_at DESC, l.id DESC
+                LIMIT 20
+                """);
+
+        assertThat(indexNames(plan)).contains("idx_leads_clinic_status_created_at");
+        assertThat(nodeTypes(plan)).doesNotContain("Sort", "Seq Scan");
+    }
+
+    @Test
+    void unfilteredListReadsKeysetIndexInOrder() {
+        JsonNode plan = explain(LIST_VIEW + """
+                ORDER BY l.created_at DESC, l.id DESC
+                LIMIT 20
+                """);
+
+        assertThat(indexNames(plan)).contains("idx_leads_created_at_id");
+        assertThat(nodeTypes(plan)).doesNotContain("Sort", "Seq Scan");
+    }
+
+    @Test
+    void keysetCursorIsAnIndexRangeCondition() {
+        JsonNode plan = explain(LIST_VIEW + """
+                WHERE l.status = 'NUEVO'
+                  AND l.created_at <= TIMESTAMP '2025-03-01 00:00:00'
+                  AND (l.created_at, l.id) < (TIMESTAMP '2025-03-01 00:00:00', 84961)
+                ORDER BY l.created_at DESC, l.id DESC
+                LIMIT 20
+                """);
+
+        assertThat(indexNames(plan)).contains("idx_leads_status_created_at");
+        assertThat(nodeTypes(plan)).doesNotContain("Sort", "Seq Scan");
+        assertThat(fieldValues(plan, "Index Cond")).anyMatch(cond -> cond.contains("ROW(created_at, id) <"));
+        // Months newer than the cursor are pruned instead of scanned and filtered
+        assertThat(relationNames(plan)).doesNotContain("leads_2025_04", "leads_2025_05");
+    }
+
+    @Test
+    void filteredCountIsIndexOnly() {
+        JsonNode plan = explain("""
+                SELECT count(l.id) FROM leads l
+                WHERE l.status = 'RECHAZADO' AND l.clinic_id = 7
+                  AND l.created_at >= TIMESTAMP '2025-02-01'
+                """);
+
+        assertThat(nodeTypes(plan)).contains("Index Only Scan");
+        assertThat(indexNames(plan)).contains("idx_leads_clinic_status_created_at");
+    }
+
+    @Test
+    void duplicateDniLookupUsesPartialIndex() {
+        JsonNode plan = explain("SELECT l.dni FROM leads l WHERE l.dni IN ('10000001', '10000002', '10000003')");
+
+        assertThat(indexNames(plan)).contains("idx_leads_dni_not_null");
+    }
+
+    @Test
+    void createdAtRangeScansOnlyMatchingPartition() {
+        JsonNode plan = explain(LIST_VIEW + """
+                WHERE l.created_at >= TIMESTAMP '2025-03-01'
+                  AND l.created_at <= TIMESTAMP '2025-03-31 23:59:59'
+                ORDER BY l.created_at DESC, l.id DESC
+                LIMIT 20
+                """);
+
+        assertThat(relationNames(plan)).filteredOn(name -> name.startsWith("leads_")).containsOnly("leads_2025_03");
+    }
+
+    @Test
+    void expiredPartitionsAreDetachedToArchive() {
+        jdbcTemplate.queryForObject("SELECT leads_create_month_partition(DATE '2024-06-01')", String.class);
+
+        List<String> archived = jdbcTemplate.queryForList(
+                "SELECT leads_archive_partitions(DATE '2024-08-01', false)", String.class);
+
+        assertThat(archived).containsExactly("leads_2024_06");
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('leads_archive.leads_2024_06') IS NOT NULL",
+                Boolean.class)).isTrue();
+    }
+
+    @Test
+    void auditIndexesAreGone() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'leads'", String.class);
+
+        assertThat(indexes).doesNotContain(
+                "idx_leads_created_by", "idx_leads_updated_by",
+                "idx_leads_clinic_id", "idx_leads_status", "idx_leads_created_at", "idx_leads_dni");
+    }
+
+    private static JsonNode explain(String sql) {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class);
+        try {
+            return objectMapper.readTree(json).get(0).get("Plan");
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable plan: " + json, e);
+        }
+    }
+
+    private static List<String> nodeTypes(JsonNode plan) {
+        List<String> types = new ArrayList<>();
+        collect(plan, "Node Type", types);
+        return types;
+    }
+
+    /**
+     * Index names in the plan, with partition indexes resolved to the parent index on leads.
+     */
+    private static List<String> indexNames(JsonNode plan) {
+        List<String> names = new ArrayList<>();
+        collect(plan, "Index Name", names);
+        return names.stream()
+                .map(name -> jdbcTemplate.queryForObject("""
+                        SELECT COALESCE((SELECT p.relname
+                                         FROM pg_inherits i
+                                         JOIN pg_class c ON c.oid = i.inhrelid
+                                         JOIN pg_class p ON p.oid = i.inhparent
+                                         WHERE c.relname = ?), ?)
+                        """, String.class, name, name))
+                .toList();
+    }
+
+    private static List<String> relationNames(JsonNode plan) {
+        return fieldValues(plan, "Relation Name");
+    }
+
+    private static List<String> fieldValues(JsonNode plan, String field) {
+        List<String> values = new ArrayList<>();
+        collect(plan, field, values);
+        return values;
+    }
+
+    private static void collect(JsonNode node, String field, List<String> values) {
+        if (node.hasNonNull(field)) {
+            values.add(node.get(field).asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collect(child, field, values);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.kiwipay.kiwipay_loan_backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiwipay.kiwipay_loan_backend.dto.request.CreateLeadRequest;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadBatchItemResult;
+import com.kiwipay.kiwipay_loan_backend.dto.response.LeadBatchResponse;
+import com.kiwipay.kiwipay_loan_backend.entity.Lead;
+import com.kiwipay.kiwipay_loan_backend.metrics.LeadMetrics;
+import com.kiwipay.kiwipay_loan_backend.outbox.LeadOutboxWriter;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadBatchRepository;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadRepository;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadStatsRepository;
+import com.kiwipay.kiwipay_loan_backend.repository.LeadStatusEventRepository;
+import com.kiwipay.kiwipay_loan_backend.service.CatalogEntry;
+import com.kiwipay.kiwipay_loan_backend.service.CatalogService;
+import com.kiwipay.kiwipay_loan_backend.service.LeadChangePublisher;
+import com.kiwipay.kiwipay_loan_backend.service.LeadStatusEventWriter;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the per-item validation of LeadServiceImpl.createLeads, in particular that a DNI
+ * is inserted at most once per batch.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LeadServiceImplBatchTest {
+
+    private static final long ACTIVE_CLINIC_ID = 1L;
+    private static final long UNKNOWN_CLINIC_ID = 99L;
+    private static final long SPECIALTY_ID = 1L;
+
+    @Mock private LeadRepository leadRepository;
+    @Mock private CatalogService catalogService;
+    @Mock private ObjectMapper objectMapper;
+    @Mock private LeadBatchRepository leadBatchRepository;
+    @Mock private Validator validator;
+    @Mock private LeadMetrics leadMetrics;
+    @Mock private LeadStatsRepository leadStatsRepository;
+    @Mock private LeadStatusEventRepository leadStatusEventRepository;
+    @Mock private LeadStatusEventWriter leadStatusEventWriter;
+    @Mock private LeadOutboxWriter leadOutboxWriter;
+    @Mock private LeadChangePublisher leadChangePublisher;
+
+    @InjectMocks
+    private LeadServiceImpl leadService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(leadService, "maxBatchSize", 500);
+
+        when(leadRepository.findExistingDnis(anyCollection())).thenReturn(List.of());
+        when(validator.validate(any(CreateLeadRequest.class))).thenReturn(Set.of());
+        when(catalogService.findClinic(ACTIVE_CLINIC_ID))
+                .thenReturn(Optional.of(new CatalogEntry(ACTIVE_CLINIC_ID, "Clínica", true)));
+        when(catalogService.findClinic(UNKNOWN_CLINIC_ID)).thenReturn(Optional.empty());
+        when(catalogService.findMedicalSpecialty(SPECIALTY_ID))
+                .thenReturn(Optional.of(new CatalogEntry(SPECIALTY_ID, "Especialidad", true)));
+    }
+
+    @Test
+    void dniRepeatedThreeTimesIsInsertedOnce() {
+        LeadBatchResponse response = leadService.createLeads(List.of(
+                request("12345678", ACTIVE_CLINIC_ID),
+                request("12345678", ACTIVE_CLINIC_ID),
+                request("12345678", ACTIVE_CLINIC_ID)));
+
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(LeadBatchItemResult::getStatus).containsExactly(
+                LeadBatchItemResult.Status.CREATED,
+                LeadBatchItemResult.Status.REJECTED,
+                LeadBatchItemResult.Status.REJECTED);
+        assertThat(insertedDnis()).containsExactly("12345678");
+    }
+
+    @Test
+    void rejectedItemReleasesItsDniForALaterItem() {
+        LeadBatchResponse response = leadService.createLeads(List.of(
+                request("12345678", UNKNOWN_CLINIC_ID),
+                request("12345678", ACTIVE_CLINIC_ID),
+                request("12345678", ACTIVE_CLINIC_ID)));
+
+        assertThat(response.getResults()).extracting(LeadBatchItemResult::getStatus).containsExactly(
+                LeadBatchItemResult.Status.REJECTED,
+                LeadBatchItemResult.Status.CREATED,
+                LeadBatchItemResult.Status.REJECTED);
+        assertThat(insertedDnis()).containsExactly("12345678");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> insertedDnis() {
+        ArgumentCaptor<List<Lead>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(leadBatchRepository).insertAll(inserted.capture());
+        return inserted.getValue().stream().map(Lead::getDni).toList();
+    }
+
+    private static CreateLeadRequest request(String dni, long clinicId) {
+        return CreateLeadRequest.builder()
+                .receptionistName("Recepción")
+                .clientName("Cliente")
+                .clinicId(clinicId)
+                .medicalSpecialtyId(SPECIALTY_ID)
+                .dni(dni)
+                .monthlyIncome(new BigDecimal("3000"))
+                .treatmentCost(new BigDecimal("10000"))
+                .phone("987654321")
+                .build();
+    }
+}